@@ -0,0 +1,54 @@
+package com.ecom.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * An AOT processed context (mvn package -Pprod) keeps the beans its conditions
+ * picked at build time: the replica pools, the schema migrator and the virtual
+ * thread executor are in or out whatever the runtime properties say. Starting it
+ * with switches that disagree with the build fails here instead of quietly
+ * running without a replica, without migrations or on the other threading model.
+ */
+@Component
+public class AotSwitchCheck implements SmartInitializingSingleton {
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Autowired
+	private Environment environment;
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (!AotDetector.useGeneratedArtifacts()) {
+			return;
+		}
+		List<String> mismatches = new ArrayList<>();
+		check(mismatches, "app.datasource.replica.url", environment.containsProperty("app.datasource.replica.url"),
+				"replicaDataSource");
+		check(mismatches, "app.migrations.enabled",
+				environment.getProperty("app.migrations.enabled", Boolean.class, true), "schemaMigrator");
+		check(mismatches, "spring.threads.virtual.enabled", Threading.VIRTUAL.isActive(environment),
+				"applicationTaskExecutorVirtualThreads");
+		if (!mismatches.isEmpty()) {
+			throw new IllegalStateException("The AOT processed context was built with other settings for "
+					+ String.join(", ", mismatches) + "; rebuild with mvn package -Pprod using the same properties");
+		}
+	}
+
+	private void check(List<String> mismatches, String property, boolean enabled, String bean) {
+		if (enabled != applicationContext.containsBean(bean)) {
+			mismatches.add(property);
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.ecom.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors for background work. With spring.threads.virtual.enabled=true (the
+ * "virtual" profile, Java 21+) @Async methods run on virtual threads and Boot's
+ * scheduler for @Scheduled methods does too; otherwise both use pooled platform
+ * threads configured by spring.task.*.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+
+	// image resizing is CPU bound, so keep it small and on platform threads in both modes;
+	// work rejected when the queue is full is requested again the next time the missing
+	// variant is served
+	@Bean
+	public TaskExecutor imageTaskExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(2);
+		executor.setMaxPoolSize(2);
+		executor.setQueueCapacity(500);
+		executor.setThreadNamePrefix("image-");
+		return executor;
+	}
+
+	// writes queued Server-Sent Events out to clients; there is at most one task per open
+	// stream, and a client that stops reading holds a thread only until the write times out
+	@Bean
+	public TaskExecutor eventTaskExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(4);
+		executor.setMaxPoolSize(4);
+		executor.setThreadNamePrefix("sse-");
+		return executor;
+	}
+
+	// replays the order history into the in-memory rankings once the application is ready,
+	// so startup does not wait for the scan; one thread per replay
+	@Bean
+	public TaskExecutor replayTaskExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(2);
+		executor.setMaxPoolSize(2);
+		executor.setThreadNamePrefix("replay-");
+		return executor;
+	}
+
+	// Boot backs off its own application executor as soon as any Executor bean exists,
+	// so declare it here the same way it would, otherwise @Async would run on the image pool
+	@Bean(name = { "applicationTaskExecutor", "taskExecutor" })
+	@ConditionalOnThreading(Threading.VIRTUAL)
+	public SimpleAsyncTaskExecutor applicationTaskExecutorVirtualThreads(SimpleAsyncTaskExecutorBuilder builder) {
+		return builder.build();
+	}
+
+	@Lazy
+	@Bean(name = { "applicationTaskExecutor", "taskExecutor" })
+	@ConditionalOnThreading(Threading.PLATFORM)
+	public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+		return builder.build();
+	}
+
+}
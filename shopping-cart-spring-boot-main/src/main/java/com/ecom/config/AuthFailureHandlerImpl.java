@@ -3,15 +3,15 @@ package com.ecom.config;
 import java.io.IOException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.LockedException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
 import org.springframework.stereotype.Component;
 
 import com.ecom.model.UserDtls;
-import com.ecom.repository.UserRepository;
+import com.ecom.service.LoginAttemptService;
 import com.ecom.service.UserService;
-import com.ecom.service.impl.UserServiceImpl;
 import com.ecom.util.AppConstant;
 
 import jakarta.servlet.ServletException;
@@ -22,7 +22,7 @@ import jakarta.servlet.http.HttpServletResponse;
 public class AuthFailureHandlerImpl extends SimpleUrlAuthenticationFailureHandler {
 
 	@Autowired
-	private UserRepository userRepository;
+	private LoginAttemptService loginAttemptService;
 
 	@Autowired
 	private UserService userService;
@@ -33,32 +33,23 @@ public class AuthFailureHandlerImpl extends SimpleUrlAuthenticationFailureHandle
 
 		String email = request.getParameter("username");
 
-		UserDtls userDtls = userRepository.findByEmail(email);
-
-		if (userDtls != null) {
-
-			if (userDtls.getIsEnable()) {
-
-				if (userDtls.getAccountNonLocked()) {
-
-					if (userDtls.getFailedAttempt() < AppConstant.ATTEMPT_TIME) {
-						userService.increaseFailedAttempt(userDtls);
-					} else {
-						userService.userAccountLock(userDtls);
-						exception = new LockedException("Your account is locked !! failed attempt 3");
-					}
-				} else {
-
-					if (userService.unlockAccountTimeExpired(userDtls)) {
-						exception = new LockedException("Your account is unlocked !! Please try to login");
-					} else {
-						exception = new LockedException("your account is Locked !! Please try after sometimes");
-					}
-				}
+		if (exception instanceof LockedException) {
 
+			// only thrown when user_dtls says the account is locked; the lock time there decides whether
+			// it is over, so an unlock scheduled on another instance, or lost in a restart, is not waited for
+			UserDtls user = userService.getUserByEmail(email);
+			if (user != null && user.getLockTime() != null
+					&& user.getLockTime().getTime() + AppConstant.UNLOCK_DURATION_TIME < System.currentTimeMillis()) {
+				userService.resetAttempt(user.getId());
+				exception = new LockedException("Your account is unlocked !! Please try to login");
 			} else {
-				exception = new LockedException("your account is inactive");
+				exception = new LockedException("your account is Locked !! Please try after sometimes");
 			}
+
+		} else if (exception instanceof DisabledException) {
+			exception = new LockedException("your account is inactive");
+		} else if (loginAttemptService.loginFailed(email)) {
+			exception = new LockedException("Your account is locked !! failed attempt 3");
 		} else {
 			exception = new LockedException("Email & password invalid");
 		}
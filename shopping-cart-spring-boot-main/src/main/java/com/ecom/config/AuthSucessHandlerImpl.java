@@ -4,12 +4,15 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.stereotype.Service;
 
+import com.ecom.service.LoginAttemptService;
+
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -17,10 +20,15 @@ import jakarta.servlet.http.HttpServletResponse;
 @Service
 public class AuthSucessHandlerImpl implements AuthenticationSuccessHandler {
 
+	@Autowired
+	private LoginAttemptService loginAttemptService;
+
 	@Override
 	public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
 			Authentication authentication) throws IOException, ServletException {
-		
+
+		loginAttemptService.loginSucceeded(authentication.getName());
+
 		Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
 		
 		Set<String> roles = AuthorityUtils.authorityListToSet(authorities);
@@ -0,0 +1,72 @@
+package com.ecom.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.ecom.util.MetricsRegistry;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Publishes HikariCP pool state (active, idle, pending, total) as gauges and the
+ * time to acquire, use and create a connection as histograms, per pool.
+ */
+public class HikariMetricsTrackerFactory implements MetricsTrackerFactory {
+
+	private final MetricsRegistry metricsRegistry;
+
+	public HikariMetricsTrackerFactory(MetricsRegistry metricsRegistry) {
+		this.metricsRegistry = metricsRegistry;
+	}
+
+	@Override
+	public IMetricsTracker create(String poolName, PoolStats poolStats) {
+		metricsRegistry.gauge("hikaricp_connections_active", "Connections in use", poolStats::getActiveConnections,
+				"pool", poolName);
+		metricsRegistry.gauge("hikaricp_connections_idle", "Idle connections", poolStats::getIdleConnections,
+				"pool", poolName);
+		metricsRegistry.gauge("hikaricp_connections_pending", "Threads waiting for a connection",
+				poolStats::getPendingThreads, "pool", poolName);
+		metricsRegistry.gauge("hikaricp_connections", "Open connections", poolStats::getTotalConnections,
+				"pool", poolName);
+		metricsRegistry.gauge("hikaricp_connections_max", "Maximum pool size", poolStats::getMaxConnections,
+				"pool", poolName);
+		metricsRegistry.gauge("hikaricp_connections_min", "Minimum idle connections", poolStats::getMinConnections,
+				"pool", poolName);
+
+		LongAdder timeouts = new LongAdder();
+		metricsRegistry.counter("hikaricp_connections_timeout_total", "Connection requests that timed out",
+				timeouts::sum, "pool", poolName);
+		MetricsRegistry.Histogram acquire = metricsRegistry.histogram("hikaricp_connections_acquire_seconds",
+				"Time waiting for a connection", "pool", poolName);
+		MetricsRegistry.Histogram usage = metricsRegistry.histogram("hikaricp_connections_usage_seconds",
+				"Time a connection is held before being returned", "pool", poolName);
+		MetricsRegistry.Histogram creation = metricsRegistry.histogram("hikaricp_connections_creation_seconds",
+				"Time to open a new connection", "pool", poolName);
+
+		return new IMetricsTracker() {
+
+			@Override
+			public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+				acquire.record(elapsedAcquiredNanos);
+			}
+
+			@Override
+			public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+				usage.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+			}
+
+			@Override
+			public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+				creation.record(TimeUnit.MILLISECONDS.toNanos(connectionCreatedMillis));
+			}
+
+			@Override
+			public void recordConnectionTimeout() {
+				timeouts.increment();
+			}
+		};
+	}
+
+}
@@ -0,0 +1,253 @@
+package com.ecom.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+
+import com.ecom.service.ImageService;
+import com.ecom.service.ImageStorageService;
+import com.ecom.util.ImageVariant;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves /img/** straight from the servlet container, outside the MVC dispatcher
+ * and the security filter chain. Files on disk are handed to Tomcat's sendfile so
+ * the body never passes through the JVM heap. Content hashed names are cached as
+ * immutable; a variant that is not generated yet is answered with its original
+ * and is not cached.
+ *
+ * Uploads are served from the site's own origin, so only JPEG, PNG, GIF and WebP
+ * go out with their image type. Any other file is sent as an attachment, and every
+ * response forbids sniffing and sandboxes the body, so an uploaded page or SVG
+ * never runs as the site.
+ */
+public class ImageServlet extends HttpServlet {
+
+	private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	// below this a plain write is cheaper than setting up sendfile (Tomcat's own default)
+	private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+	private static final Pattern CONTENT_HASH = Pattern.compile("^([0-9a-f]{64})\\.");
+
+	private static final Pattern RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+	private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+	private static final String REVALIDATE = "public, max-age=3600";
+
+	// the only types sent as images, by extension; jfif is what some of the bundled product images use
+	private static final Map<String, String> IMAGE_TYPES = Map.of("jpg", MediaType.IMAGE_JPEG_VALUE, "jpeg",
+			MediaType.IMAGE_JPEG_VALUE, "jfif", MediaType.IMAGE_JPEG_VALUE, "png", MediaType.IMAGE_PNG_VALUE, "gif",
+			MediaType.IMAGE_GIF_VALUE, "webp", "image/webp");
+
+	private final ImageStorageService imageStorageService;
+
+	private final ImageService imageService;
+
+	public ImageServlet(ImageStorageService imageStorageService, ImageService imageService) {
+		this.imageStorageService = imageStorageService;
+		this.imageService = imageService;
+	}
+
+	@Override
+	protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+		serve(req, resp, true);
+	}
+
+	@Override
+	protected void doHead(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+		serve(req, resp, false);
+	}
+
+	private void serve(HttpServletRequest req, HttpServletResponse resp, boolean content) throws IOException {
+		String path = req.getPathInfo();
+		if (path == null || path.contains("..") || path.contains("\\") || path.endsWith("/")) {
+			resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+		path = path.substring(1);
+
+		boolean fallback = false;
+		Resource resource = find(path);
+		if (resource == null) {
+			resource = findOriginal(path);
+			fallback = resource != null;
+		}
+		if (resource == null) {
+			resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+
+		long length = resource.contentLength();
+		long lastModified = resource.lastModified() / 1000 * 1000;
+		String fileName = path.substring(path.lastIndexOf('/') + 1);
+		Matcher hash = CONTENT_HASH.matcher(fileName);
+		boolean immutable = !fallback && hash.find();
+		// a stored original is named after the digest of its bytes, anything else is identified by mtime and size
+		boolean original = fileName.indexOf('.') == fileName.lastIndexOf('.');
+		String etag = "\"" + (immutable && original ? hash.group(1)
+				: Long.toHexString(lastModified) + "-" + Long.toHexString(length)) + "\"";
+
+		resp.setHeader(HttpHeaders.ETAG, etag);
+		resp.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+		resp.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+		resp.setHeader(HttpHeaders.CACHE_CONTROL, fallback ? "no-cache" : immutable ? IMMUTABLE : REVALIDATE);
+		resp.setHeader("X-Content-Type-Options", "nosniff");
+		resp.setHeader("Content-Security-Policy", "sandbox");
+		String extension = StringUtils.getFilenameExtension(fileName);
+		String type = extension == null ? null : IMAGE_TYPES.get(extension.toLowerCase(Locale.ROOT));
+		if (type != null) {
+			resp.setContentType(type);
+		} else {
+			resp.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+			resp.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment");
+		}
+
+		if (notModified(req, etag, lastModified)) {
+			resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		long start = 0;
+		long end = length - 1;
+		String range = req.getHeader(HttpHeaders.RANGE);
+		String ifRange = req.getHeader(HttpHeaders.IF_RANGE);
+		if (range != null && (ifRange == null || ifRange.equals(etag))) {
+			Matcher matcher = RANGE.matcher(range.trim());
+			// multiple ranges are legal to ignore, the whole body is sent instead
+			if (matcher.matches() && !(matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+				if (matcher.group(1).isEmpty()) {
+					start = Math.max(0, length - Long.parseLong(matcher.group(2)));
+				} else {
+					start = Long.parseLong(matcher.group(1));
+					if (!matcher.group(2).isEmpty()) {
+						end = Math.min(end, Long.parseLong(matcher.group(2)));
+					}
+				}
+				if (start > end) {
+					resp.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+					resp.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+					return;
+				}
+				resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+				resp.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+			}
+		}
+
+		long count = end - start + 1;
+		resp.setContentLengthLong(count);
+		if (!content || count <= 0) {
+			return;
+		}
+
+		if (resource.isFile()) {
+			File file = resource.getFile();
+			if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(req.getAttribute(SENDFILE_SUPPORTED))) {
+				req.setAttribute(SENDFILE_FILENAME, file.getAbsolutePath());
+				req.setAttribute(SENDFILE_START, start);
+				req.setAttribute(SENDFILE_END, end + 1);
+				return;
+			}
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				WritableByteChannel out = Channels.newChannel(resp.getOutputStream());
+				long position = start;
+				while (position <= end) {
+					position += channel.transferTo(position, end + 1 - position, out);
+				}
+			}
+		} else {
+			// bundled images inside a packaged jar
+			try (InputStream in = resource.getInputStream()) {
+				in.skipNBytes(start);
+				OutputStream out = resp.getOutputStream();
+				byte[] buffer = new byte[8192];
+				long remaining = count;
+				int read;
+				while (remaining > 0 && (read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+					out.write(buffer, 0, read);
+					remaining -= read;
+				}
+			}
+		}
+	}
+
+	private boolean notModified(HttpServletRequest req, String etag, long lastModified) {
+		String ifNoneMatch = req.getHeader(HttpHeaders.IF_NONE_MATCH);
+		if (ifNoneMatch != null) {
+			for (String candidate : ifNoneMatch.split(",")) {
+				String value = candidate.trim();
+				if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		try {
+			long ifModifiedSince = req.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+			return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	// uploads first, then the images bundled with the application; files still being written end in .tmp
+	private Resource find(String path) throws IOException {
+		if (path.endsWith(".tmp")) {
+			return null;
+		}
+		Path stored = imageStorageService.getRoot().resolve(path).normalize();
+		if (stored.startsWith(imageStorageService.getRoot()) && Files.isRegularFile(stored)) {
+			return new FileSystemResource(stored);
+		}
+
+		ClassPathResource bundled = new ClassPathResource("static/img/" + path);
+		if (bundled.exists() && bundled.isReadable()) {
+			return bundled;
+		}
+		return null;
+	}
+
+	// {folder}/{variant}/{name}.{format} that is not generated yet: answer with the original and queue it
+	private Resource findOriginal(String path) throws IOException {
+		String[] parts = path.split("/", 3);
+		if (parts.length < 3 || ImageVariant.fromName(parts[1]) == null || parts[2].lastIndexOf('.') <= 0) {
+			return null;
+		}
+
+		String imageName = parts[2].substring(0, parts[2].lastIndexOf('.'));
+		Resource original = find(parts[0] + "/" + imageName);
+		if (original != null) {
+			imageService.generateVariants(parts[0], imageName);
+		}
+		return original;
+	}
+
+}
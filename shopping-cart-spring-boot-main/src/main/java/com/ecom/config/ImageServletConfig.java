@@ -0,0 +1,29 @@
+package com.ecom.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ecom.service.ImageService;
+import com.ecom.service.ImageStorageService;
+
+@Configuration
+public class ImageServletConfig {
+
+	@Autowired
+	private ImageStorageService imageStorageService;
+
+	@Autowired
+	private ImageService imageService;
+
+	// a path mapping wins over the dispatcher, so images never reach Spring MVC
+	@Bean
+	public ServletRegistrationBean<ImageServlet> imageServlet() {
+		ServletRegistrationBean<ImageServlet> registration = new ServletRegistrationBean<>(
+				new ImageServlet(imageStorageService, imageService), "/img/*");
+		registration.setLoadOnStartup(1);
+		return registration;
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.ecom.config;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.ecom.util.JwtTokenUtil;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+	private static final String BEARER_PREFIX = "Bearer ";
+
+	private final JwtTokenUtil jwtTokenUtil;
+
+	public JwtAuthenticationFilter(JwtTokenUtil jwtTokenUtil) {
+		this.jwtTokenUtil = jwtTokenUtil;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+		if (header != null && header.startsWith(BEARER_PREFIX)) {
+			TokenUser tokenUser = jwtTokenUtil.validateToken(header.substring(BEARER_PREFIX.length()).trim());
+
+			if (tokenUser != null) {
+				UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(tokenUser,
+						null, List.of(new SimpleGrantedAuthority(tokenUser.getRole())));
+				SecurityContextHolder.getContext().setAuthentication(authentication);
+			}
+		}
+
+		filterChain.doFilter(request, response);
+	}
+
+}
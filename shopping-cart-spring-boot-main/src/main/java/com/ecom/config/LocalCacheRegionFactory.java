@@ -0,0 +1,68 @@
+package com.ecom.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * Hibernate second-level cache kept in this JVM, one LocalCacheStorage per region,
+ * each with its own size and TTL. Writes made through Hibernate on this node update
+ * the entity regions and invalidate the query regions. Other nodes drop their
+ * cached catalog when they see the shared catalog version move (see
+ * CatalogVersion), so staleness across nodes is bounded by its poll interval.
+ */
+public class LocalCacheRegionFactory extends RegionFactoryTemplate {
+
+	private final Function<String, LocalCacheStorage.Settings> settings;
+
+	private final Consumer<LocalCacheStorage> onRegionCreated;
+
+	public LocalCacheRegionFactory(Function<String, LocalCacheStorage.Settings> settings,
+			Consumer<LocalCacheStorage> onRegionCreated) {
+		this.settings = settings;
+		this.onRegionCreated = onRegionCreated;
+	}
+
+	@Override
+	protected void prepareForUse(SessionFactoryOptions options, Map<String, Object> configValues) {
+	}
+
+	@Override
+	protected void releaseFromUse() {
+	}
+
+	@Override
+	protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+			DomainDataRegionBuildingContext buildingContext) {
+		return create(regionConfig.getRegionName(), settings.apply(regionConfig.getRegionName()));
+	}
+
+	@Override
+	protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+			SessionFactoryImplementor sessionFactory) {
+		return create(regionName, settings.apply(regionName));
+	}
+
+	// never bounded: a query result whose table timestamp was evicted would be served as current
+	@Override
+	protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+			SessionFactoryImplementor sessionFactory) {
+		return create(regionName, new LocalCacheStorage.Settings(Integer.MAX_VALUE, Duration.ZERO));
+	}
+
+	private LocalCacheStorage create(String regionName, LocalCacheStorage.Settings regionSettings) {
+		LocalCacheStorage storage = new LocalCacheStorage(regionName, regionSettings);
+		onRegionCreated.accept(storage);
+		return storage;
+	}
+
+}
@@ -0,0 +1,166 @@
+package com.ecom.config;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * The entries of one second-level cache region, bounded by count and by age.
+ * Lookups only read a concurrent map and mark the entry as used, so catalog reads
+ * on many threads never queue behind each other. A put that takes the region over
+ * its size runs a clock sweep: used entries get their mark cleared and another
+ * round, unused ones go. That approximates least recently used without keeping an
+ * exact order under a lock.
+ */
+public class LocalCacheStorage implements DomainDataStorageAccess {
+
+	public record Settings(int maxEntries, Duration ttl) {
+	}
+
+	private static final class Entry {
+
+		private final Object value;
+
+		private final long expiresAt;
+
+		private volatile boolean used;
+
+		private Entry(Object value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	private final String regionName;
+
+	private final int maxEntries;
+
+	private final long ttlNanos;
+
+	private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+
+	// one sweeper at a time; a put that finds it busy leaves the work to it
+	private final ReentrantLock sweepLock = new ReentrantLock();
+
+	// the clock hand, guarded by sweepLock
+	private Iterator<Map.Entry<Object, Entry>> hand;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder puts = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	public LocalCacheStorage(String regionName, Settings settings) {
+		this.regionName = regionName;
+		this.maxEntries = settings.maxEntries();
+		this.ttlNanos = settings.ttl().toNanos();
+	}
+
+	@Override
+	public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+		Entry entry = entries.get(key);
+		if (entry != null && expired(entry)) {
+			if (entries.remove(key, entry)) {
+				evictions.increment();
+			}
+			entry = null;
+		}
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		// skip the write when already set, so hot entries stay shared in every CPU cache
+		if (!entry.used) {
+			entry.used = true;
+		}
+		hits.increment();
+		return entry.value;
+	}
+
+	@Override
+	public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+		entries.put(key, new Entry(value, ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0));
+		puts.increment();
+		if (entries.size() > maxEntries && sweepLock.tryLock()) {
+			try {
+				sweep();
+			} finally {
+				sweepLock.unlock();
+			}
+		}
+	}
+
+	@Override
+	public boolean contains(Object key) {
+		Entry entry = entries.get(key);
+		return entry != null && !expired(entry);
+	}
+
+	@Override
+	public void evictData() {
+		entries.clear();
+	}
+
+	@Override
+	public void evictData(Object key) {
+		entries.remove(key);
+	}
+
+	@Override
+	public void release() {
+		evictData();
+	}
+
+	private void sweep() {
+		while (entries.size() > maxEntries) {
+			if (hand == null || !hand.hasNext()) {
+				hand = entries.entrySet().iterator();
+			}
+			Map.Entry<Object, Entry> next = hand.next();
+			Entry entry = next.getValue();
+			if (entry.used && !expired(entry)) {
+				entry.used = false;
+			} else if (entries.remove(next.getKey(), entry)) {
+				evictions.increment();
+			}
+		}
+	}
+
+	private boolean expired(Entry entry) {
+		return entry.expiresAt != 0 && System.nanoTime() - entry.expiresAt > 0;
+	}
+
+	public String getRegionName() {
+		return regionName;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getPuts() {
+		return puts.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+}
@@ -0,0 +1,117 @@
+package com.ecom.config;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.ecom.util.MetricsRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+	@Autowired
+	private MetricsRegistry metricsRegistry;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new RequestMetricsInterceptor(metricsRegistry));
+	}
+
+	// the tracker has to be set before the pool starts, which is on the first getConnection,
+	// and before the pool is wrapped (see SqlBudgetConfig)
+	@Bean
+	public static BeanPostProcessor hikariMetricsPostProcessor(ObjectProvider<MetricsRegistry> metricsRegistry) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				if (bean instanceof HikariDataSource dataSource && dataSource.getHikariPoolMXBean() == null) {
+					dataSource.setMetricsTrackerFactory(new HikariMetricsTrackerFactory(metricsRegistry.getObject()));
+				}
+				return bean;
+			}
+		};
+	}
+
+	@Bean
+	public SmartInitializingSingleton hibernateMetricsBinder() {
+		return () -> {
+			Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+			if (statistics.isStatisticsEnabled()) {
+				bindHibernate(statistics);
+			}
+			bindJvm();
+		};
+	}
+
+	private void bindHibernate(Statistics stats) {
+		metricsRegistry.counter("hibernate_sessions_open_total", "Sessions opened", stats::getSessionOpenCount);
+		metricsRegistry.counter("hibernate_sessions_closed_total", "Sessions closed", stats::getSessionCloseCount);
+		metricsRegistry.counter("hibernate_transactions_total", "Transactions", stats::getSuccessfulTransactionCount,
+				"result", "success");
+		metricsRegistry.counter("hibernate_transactions_total", "Transactions",
+				() -> stats.getTransactionCount() - stats.getSuccessfulTransactionCount(), "result", "failure");
+		metricsRegistry.counter("hibernate_statements_total", "JDBC statements", stats::getPrepareStatementCount,
+				"status", "prepared");
+		metricsRegistry.counter("hibernate_statements_total", "JDBC statements", stats::getCloseStatementCount,
+				"status", "closed");
+		metricsRegistry.counter("hibernate_flushes_total", "Session flushes", stats::getFlushCount);
+
+		metricsRegistry.counter("hibernate_query_executions_total", "HQL and criteria queries executed",
+				stats::getQueryExecutionCount);
+		metricsRegistry.gauge("hibernate_query_executions_max_seconds", "Slowest query since startup",
+				() -> stats.getQueryExecutionMaxTime() / 1000.0);
+
+		metricsRegistry.counter("hibernate_entities_loads_total", "Entities loaded", stats::getEntityLoadCount);
+		metricsRegistry.counter("hibernate_entities_fetches_total", "Entities fetched by a separate select",
+				stats::getEntityFetchCount);
+		metricsRegistry.counter("hibernate_entities_inserts_total", "Entities inserted", stats::getEntityInsertCount);
+		metricsRegistry.counter("hibernate_entities_updates_total", "Entities updated", stats::getEntityUpdateCount);
+		metricsRegistry.counter("hibernate_entities_deletes_total", "Entities deleted", stats::getEntityDeleteCount);
+		metricsRegistry.counter("hibernate_collections_loads_total", "Collections loaded", stats::getCollectionLoadCount);
+		metricsRegistry.counter("hibernate_collections_fetches_total", "Collections fetched by a separate select",
+				stats::getCollectionFetchCount);
+
+		metricsRegistry.counter("hibernate_second_level_cache_requests_total", "Second level cache lookups",
+				stats::getSecondLevelCacheHitCount, "result", "hit");
+		metricsRegistry.counter("hibernate_second_level_cache_requests_total", "Second level cache lookups",
+				stats::getSecondLevelCacheMissCount, "result", "miss");
+		metricsRegistry.counter("hibernate_second_level_cache_puts_total", "Entries put in the second level cache",
+				stats::getSecondLevelCachePutCount);
+		metricsRegistry.counter("hibernate_cache_query_requests_total", "Query cache lookups",
+				stats::getQueryCacheHitCount, "result", "hit");
+		metricsRegistry.counter("hibernate_cache_query_requests_total", "Query cache lookups",
+				stats::getQueryCacheMissCount, "result", "miss");
+		metricsRegistry.counter("hibernate_cache_query_puts_total", "Results put in the query cache",
+				stats::getQueryCachePutCount);
+	}
+
+	private void bindJvm() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		metricsRegistry.gauge("jvm_memory_used_bytes", "Used memory", () -> memory.getHeapMemoryUsage().getUsed(),
+				"area", "heap");
+		metricsRegistry.gauge("jvm_memory_used_bytes", "Used memory", () -> memory.getNonHeapMemoryUsage().getUsed(),
+				"area", "nonheap");
+		metricsRegistry.gauge("jvm_threads_live_threads", "Live threads", threads::getThreadCount);
+		metricsRegistry.gauge("process_uptime_seconds", "Time since the JVM started",
+				() -> ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+	}
+
+}
@@ -0,0 +1,56 @@
+package com.ecom.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ecom.service.PopularityService;
+import com.ecom.service.ProductService;
+import com.ecom.service.ProductStatsService;
+import com.ecom.util.CatalogVersion;
+
+@Configuration
+public class PageCacheConfig {
+
+	@Autowired
+	private CatalogVersion catalogVersion;
+
+	@Autowired
+	private PopularityService popularityService;
+
+	@Autowired
+	private ProductStatsService productStatsService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Value("${app.page-cache.max-entries:500}")
+	private int maxEntries;
+
+	@Value("${app.page-cache.max-age:5m}")
+	private Duration maxAge;
+
+	// right after Spring Security, so hits still get its response headers but skip the controllers
+	@Bean
+	public FilterRegistrationBean<PageCacheFilter> pageCacheFilter() {
+		FilterRegistrationBean<PageCacheFilter> registration = new FilterRegistrationBean<>(
+				new PageCacheFilter(catalogVersion, maxEntries, maxAge));
+		registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+		return registration;
+	}
+
+	// views served from the cache count too, so this runs before it
+	@Bean
+	public FilterRegistrationBean<ProductViewFilter> productViewFilter() {
+		FilterRegistrationBean<ProductViewFilter> registration = new FilterRegistrationBean<>(
+				new ProductViewFilter(popularityService, productStatsService, productService));
+		registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+		return registration;
+	}
+
+}
@@ -0,0 +1,146 @@
+package com.ecom.config;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.ecom.util.CatalogVersion;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Keeps the rendered HTML of the storefront pages in memory, keyed by path and
+ * query. Pages are always rendered as for an anonymous visitor, so one copy serves
+ * everybody; the user part of the navbar is left as a hole that the page fills
+ * from /user-nav. An entry is only reused while the catalog version it was
+ * rendered at is still current, and for at most maxAge, or until the earlier time
+ * a controller set in {@link #EXPIRES_AT} for pages that also show data outside
+ * the catalog. maxAge bounds how long a page outlives a change the catalog
+ * version does not see, like a template or a write made straight to the database.
+ */
+public class PageCacheFilter extends OncePerRequestFilter {
+
+	// read by base.html to render the user navbar as a hole
+	public static final String USER_NAV_HOLE = "userNavHole";
+
+	// epoch millis, set by a controller when the page must be re-rendered by then
+	public static final String EXPIRES_AT = "pageCacheExpiresAt";
+
+	private static final Pattern CACHEABLE = Pattern.compile("^/(products|product/\\d+|search)?$");
+
+	private final CatalogVersion catalogVersion;
+
+	private final long maxAge;
+
+	// a lock rather than synchronized, which would pin a virtual thread to its carrier while it waits
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Map<String, Page> pages;
+
+	public PageCacheFilter(CatalogVersion catalogVersion, int maxEntries, Duration maxAge) {
+		this.catalogVersion = catalogVersion;
+		this.maxAge = maxAge.toMillis();
+		this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Page> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		if (!HttpMethod.GET.matches(request.getMethod()) || !CACHEABLE.matcher(request.getRequestURI()).matches()) {
+			return true;
+		}
+		// a pending flash message is rendered into the page and must not be shared
+		HttpSession session = request.getSession(false);
+		return session != null && (session.getAttribute("succMsg") != null || session.getAttribute("errorMsg") != null);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		String key = request.getQueryString() == null ? request.getRequestURI()
+				: request.getRequestURI() + "?" + request.getQueryString();
+		long version = catalogVersion.current().version();
+
+		Page page;
+		lock.lock();
+		try {
+			page = pages.get(key);
+		} finally {
+			lock.unlock();
+		}
+		if (page != null && page.version() == version && page.expiresAt() > System.currentTimeMillis()) {
+			response.setHeader("X-Page-Cache", "HIT");
+			response.setContentType(page.contentType());
+			response.setContentLength(page.body().length);
+			response.getOutputStream().write(page.body());
+			return;
+		}
+
+		request.setAttribute(USER_NAV_HOLE, true);
+		ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+		wrapper.setHeader("X-Page-Cache", "MISS");
+		filterChain.doFilter(new AnonymousRequest(request), wrapper);
+
+		String contentType = wrapper.getContentType();
+		if (wrapper.getStatus() == HttpServletResponse.SC_OK && contentType != null
+				&& MediaType.TEXT_HTML.isCompatibleWith(MediaType.parseMediaType(contentType))) {
+			long expiresAt = System.currentTimeMillis() + maxAge;
+			if (request.getAttribute(EXPIRES_AT) instanceof Long time) {
+				expiresAt = Math.min(expiresAt, time);
+			}
+			lock.lock();
+			try {
+				pages.put(key, new Page(wrapper.getContentAsByteArray(), contentType, version, expiresAt));
+			} finally {
+				lock.unlock();
+			}
+		}
+		wrapper.copyBodyToResponse();
+	}
+
+	private record Page(byte[] body, String contentType, long version, long expiresAt) {
+	}
+
+	// hides the logged in user from the controller and templates while a shared page is rendered
+	private static class AnonymousRequest extends HttpServletRequestWrapper {
+
+		AnonymousRequest(HttpServletRequest request) {
+			super(request);
+		}
+
+		@Override
+		public Principal getUserPrincipal() {
+			return null;
+		}
+
+		@Override
+		public String getRemoteUser() {
+			return null;
+		}
+
+		@Override
+		public boolean isUserInRole(String role) {
+			return false;
+		}
+	}
+
+}
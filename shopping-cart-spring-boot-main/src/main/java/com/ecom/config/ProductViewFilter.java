@@ -0,0 +1,67 @@
+package com.ecom.config;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.ecom.service.PopularityService;
+import com.ecom.service.ProductService;
+import com.ecom.service.ProductStatsService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts product page and product API views, for the popularity rankings and the
+ * product statistics. Runs ahead of the page cache and
+ * the catalog ETag check, so views answered from a cached page or with a 304
+ * still count. Only ids of existing products are counted: a 2xx means the product
+ * was found, and a 304, which is answered from the catalog ETag alone, is checked
+ * against the (cached) product.
+ */
+public class ProductViewFilter extends OncePerRequestFilter {
+
+	private static final Pattern PRODUCT = Pattern.compile("^/(?:product|api/products)/(\\d{1,9})$");
+
+	private final PopularityService popularityService;
+
+	private final ProductStatsService productStatsService;
+
+	private final ProductService productService;
+
+	public ProductViewFilter(PopularityService popularityService, ProductStatsService productStatsService,
+			ProductService productService) {
+		this.popularityService = popularityService;
+		this.productStatsService = productStatsService;
+		this.productService = productService;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !HttpMethod.GET.matches(request.getMethod()) || !PRODUCT.matcher(request.getRequestURI()).matches();
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		filterChain.doFilter(request, response);
+		int status = response.getStatus();
+		if ((status >= 200 && status < 300) || status == HttpServletResponse.SC_NOT_MODIFIED) {
+			Matcher matcher = PRODUCT.matcher(request.getRequestURI());
+			if (matcher.matches()) {
+				Integer productId = Integer.valueOf(matcher.group(1));
+				if (status == HttpServletResponse.SC_NOT_MODIFIED && productService.getProductById(productId) == null) {
+					return;
+				}
+				popularityService.recordView(productId);
+				productStatsService.recordView(productId);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.ecom.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Gives read-only transactions a connection from the replica and everything else
+ * one from the primary. The transaction's read-only flag is only set after the
+ * transaction manager asked for its connection, so this must sit behind a
+ * LazyConnectionDataSourceProxy, which asks on the first statement.
+ *
+ * Replicas lag: a user who wrote within the read-your-writes window keeps reading
+ * from the primary, so the cart viewed right after saveCart has the new row. The
+ * window starts when the write commits, however long the transaction took. If
+ * the replica refuses a connection, reads go to the primary for a while.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+	private static final long REPLICA_RETRY_NANOS = Duration.ofSeconds(5).toNanos();
+
+	// beyond this many tracked writers, expired entries are dropped
+	private static final int MAX_TRACKED_WRITERS = 10_000;
+
+	private final DataSource primary;
+
+	private final DataSource replica;
+
+	private final long readYourWritesNanos;
+
+	private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+	private volatile long replicaDownUntil;
+
+	public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWrites) {
+		this.primary = primary;
+		this.replica = replica;
+		this.readYourWritesNanos = readYourWrites.toNanos();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (readFromReplica()) {
+			try {
+				return replica.getConnection();
+			} catch (SQLException e) {
+				replicaDownUntil = System.nanoTime() + REPLICA_RETRY_NANOS;
+				logger.warn("Replica unavailable, reading from the primary: {}", e.getMessage());
+			}
+		}
+		return primary.getConnection();
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return (readFromReplica() ? replica : primary).getConnection(username, password);
+	}
+
+	private boolean readFromReplica() {
+		String user = currentUser();
+		long now = System.nanoTime();
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			if (user != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+				if (TransactionSynchronizationManager.isSynchronizationActive()) {
+					TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+						@Override
+						public void afterCommit() {
+							recordWrite(user, System.nanoTime());
+						}
+					});
+				} else {
+					recordWrite(user, now);
+				}
+			}
+			return false;
+		}
+		if (now - replicaDownUntil < 0) {
+			return false;
+		}
+		Long lastWrite = user != null ? lastWrites.get(user) : null;
+		return lastWrite == null || now - lastWrite > readYourWritesNanos;
+	}
+
+	private void recordWrite(String user, long now) {
+		lastWrites.put(user, now);
+		if (lastWrites.size() > MAX_TRACKED_WRITERS) {
+			lastWrites.values().removeIf(time -> now - time > readYourWritesNanos);
+		}
+	}
+
+	private String currentUser() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+				|| !authentication.isAuthenticated()) {
+			return null;
+		}
+		return authentication.getName();
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.ecom.config;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.ecom.util.MetricsRegistry;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Times every request handled by a controller in com.ecom.controller, view
+ * rendering included, into http_server_requests_seconds. Requests are labelled
+ * with the mapping pattern rather than the path, so /product/{id} is one series.
+ */
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+	private static final String START = RequestMetricsInterceptor.class.getName() + ".start";
+
+	private static final String CONTROLLER_PACKAGE = "com.ecom.controller";
+
+	private final MetricsRegistry metricsRegistry;
+
+	public RequestMetricsInterceptor(MetricsRegistry metricsRegistry) {
+		this.metricsRegistry = metricsRegistry;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		// an async request comes through here again when it is dispatched back; keep the first start
+		if (request.getAttribute(START) == null) {
+			request.setAttribute(START, System.nanoTime());
+		}
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		Long start = (Long) request.getAttribute(START);
+		if (start == null || !(handler instanceof HandlerMethod handlerMethod)
+				|| !CONTROLLER_PACKAGE.equals(handlerMethod.getBeanType().getPackageName())) {
+			return;
+		}
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		int status = ex != null && response.getStatus() < 400 ? 500 : response.getStatus();
+		metricsRegistry.histogram("http_server_requests_seconds", "Time to handle a request, view rendering included",
+				"method", request.getMethod(),
+				"uri", pattern == null ? "UNKNOWN" : pattern.toString(),
+				"status", Integer.toString(status),
+				"exception", ex == null ? "none" : ex.getClass().getSimpleName())
+				.record(System.nanoTime() - start);
+	}
+
+}
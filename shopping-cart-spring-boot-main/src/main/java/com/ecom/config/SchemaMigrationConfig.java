@@ -0,0 +1,28 @@
+package com.ecom.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.migrations.enabled", matchIfMissing = true)
+public class SchemaMigrationConfig {
+
+	@Bean(initMethod = "migrate")
+	public SchemaMigrator schemaMigrator(DataSource dataSource,
+			@Value("${app.migrations.location:classpath:db/migration}") String location,
+			@Value("${app.migrations.baseline-on-migrate:true}") boolean baselineOnMigrate) {
+		return new SchemaMigrator(dataSource, location, baselineOnMigrate);
+	}
+
+	// Hibernate validates against the schema, so it must only start once the migrations ran
+	@Bean
+	public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnSchemaMigrator() {
+		return new EntityManagerFactoryDependsOnPostProcessor("schemaMigrator");
+	}
+
+}
@@ -0,0 +1,155 @@
+package com.ecom.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+/**
+ * Applies the versioned scripts in classpath:db/migration, named like Flyway's
+ * (V1__baseline.sql, V2__...), in version order, and records each one with a
+ * checksum in schema_version. A script that was changed after it ran, or a new
+ * one older than the last applied, stops startup. A database that already has
+ * the tables but no history (created by ddl-auto=update) is baselined at V1.
+ *
+ * There is no cross-node lock, and MySQL cannot roll back DDL, so let one node
+ * migrate before the others start and fix a failed script by hand.
+ */
+public class SchemaMigrator {
+
+	private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+
+	private static final Pattern SCRIPT = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+	// a table V1 creates, used to recognise a schema that predates migrations
+	private static final String BASELINE_TABLE = "product";
+
+	private final DataSource dataSource;
+
+	private final String location;
+
+	private final boolean baselineOnMigrate;
+
+	public SchemaMigrator(DataSource dataSource, String location, boolean baselineOnMigrate) {
+		this.dataSource = dataSource;
+		this.location = location;
+		this.baselineOnMigrate = baselineOnMigrate;
+	}
+
+	public void migrate() throws SQLException, IOException {
+		List<Migration> migrations = load();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("create table if not exists schema_version (version integer not null, "
+				+ "description varchar(200) not null, checksum bigint not null, installed_on timestamp not null, "
+				+ "execution_time integer not null, primary key (version))");
+
+		Map<Integer, Long> applied = new TreeMap<>();
+		jdbcTemplate.query("select version, checksum from schema_version",
+				rs -> { applied.put(rs.getInt(1), rs.getLong(2)); });
+
+		if (applied.isEmpty() && baselineOnMigrate && !migrations.isEmpty() && tableExists(BASELINE_TABLE)) {
+			Migration baseline = migrations.get(0);
+			record(jdbcTemplate, baseline, 0);
+			applied.put(baseline.version(), baseline.checksum());
+			logger.info("Existing schema baselined at V{}", baseline.version());
+		}
+
+		int latest = applied.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+		for (Migration migration : migrations) {
+			Long checksum = applied.get(migration.version());
+			if (checksum != null) {
+				if (checksum != migration.checksum()) {
+					throw new IllegalStateException("Migration " + migration.name()
+							+ " was changed after it was applied; add a new migration instead");
+				}
+				continue;
+			}
+			if (migration.version() < latest) {
+				throw new IllegalStateException("Migration " + migration.name()
+						+ " is older than the applied V" + latest + "; give it a higher version");
+			}
+			long start = System.currentTimeMillis();
+			try (Connection connection = dataSource.getConnection()) {
+				ScriptUtils.executeSqlScript(connection, migration.resource());
+			}
+			int elapsed = (int) (System.currentTimeMillis() - start);
+			record(jdbcTemplate, migration, elapsed);
+			logger.info("Applied migration {} in {} ms", migration.name(), elapsed);
+		}
+	}
+
+	private List<Migration> load() throws IOException {
+		Resource[] resources = new PathMatchingResourcePatternResolver().getResources(location + "/V*__*.sql");
+		List<Migration> migrations = new ArrayList<>();
+		for (Resource resource : resources) {
+			Matcher matcher = SCRIPT.matcher(resource.getFilename());
+			if (!matcher.matches()) {
+				throw new IllegalStateException("Migration " + resource.getFilename() + " is not named V<version>__<description>.sql");
+			}
+			migrations.add(new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+					resource.getFilename(), checksum(resource), resource));
+		}
+		migrations.sort(Comparator.comparingInt(Migration::version));
+		for (int i = 1; i < migrations.size(); i++) {
+			if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+				throw new IllegalStateException("Two migrations with version " + migrations.get(i).version());
+			}
+		}
+		return migrations;
+	}
+
+	// CRC32 of the script with line endings normalised, so a checkout on Windows does not count as a change
+	private long checksum(Resource resource) throws IOException {
+		try (InputStream in = resource.getInputStream()) {
+			String script = new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+			CRC32 crc = new CRC32();
+			crc.update(script.getBytes(StandardCharsets.UTF_8));
+			return crc.getValue();
+		}
+	}
+
+	private boolean tableExists(String table) throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			DatabaseMetaData metaData = connection.getMetaData();
+			for (String name : new String[] { table, table.toUpperCase() }) {
+				try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, name, new String[] { "TABLE" })) {
+					if (tables.next()) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+	}
+
+	private void record(JdbcTemplate jdbcTemplate, Migration migration, int elapsed) {
+		jdbcTemplate.update("insert into schema_version (version, description, checksum, installed_on, execution_time) "
+				+ "values (?, ?, ?, ?, ?)", migration.version(), migration.description(), migration.checksum(),
+				new Timestamp(System.currentTimeMillis()), elapsed);
+	}
+
+	private record Migration(int version, String description, String name, long checksum, Resource resource) {
+	}
+
+}
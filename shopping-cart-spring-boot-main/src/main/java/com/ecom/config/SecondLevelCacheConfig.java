@@ -0,0 +1,52 @@
+package com.ecom.config;
+
+import java.time.Duration;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.ecom.util.MetricsRegistry;
+
+@Configuration
+public class SecondLevelCacheConfig {
+
+	@Autowired
+	private Environment environment;
+
+	@Autowired
+	private MetricsRegistry metricsRegistry;
+
+	// region settings are read as app.cache.regions.<region>.*, falling back to app.cache.default.*
+	@Bean
+	public HibernatePropertiesCustomizer localCacheRegionFactory() {
+		LocalCacheRegionFactory regionFactory = new LocalCacheRegionFactory(this::settings, this::bindMetrics);
+		return properties -> properties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+	}
+
+	private LocalCacheStorage.Settings settings(String region) {
+		int maxEntries = environment.getProperty("app.cache.default.max-entries", Integer.class, 1000);
+		Duration ttl = environment.getProperty("app.cache.default.ttl", Duration.class, Duration.ofMinutes(10));
+		return new LocalCacheStorage.Settings(
+				environment.getProperty("app.cache.regions." + region + ".max-entries", Integer.class, maxEntries),
+				environment.getProperty("app.cache.regions." + region + ".ttl", Duration.class, ttl));
+	}
+
+	private void bindMetrics(LocalCacheStorage storage) {
+		String region = storage.getRegionName();
+		metricsRegistry.counter("hibernate_cache_region_requests_total", "Second level cache lookups by region",
+				storage::getHits, "region", region, "result", "hit");
+		metricsRegistry.counter("hibernate_cache_region_requests_total", "Second level cache lookups by region",
+				storage::getMisses, "region", region, "result", "miss");
+		metricsRegistry.counter("hibernate_cache_region_puts_total", "Entries put in the region", storage::getPuts,
+				"region", region);
+		metricsRegistry.counter("hibernate_cache_region_evictions_total", "Entries dropped for size or age",
+				storage::getEvictions, "region", region);
+		metricsRegistry.gauge("hibernate_cache_region_entries", "Entries held in the region", storage::size,
+				"region", region);
+	}
+
+}
@@ -1,20 +1,43 @@
 package com.ecom.config;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import com.ecom.util.JwtTokenUtil;
+
+import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
+import io.swagger.v3.oas.annotations.security.SecurityScheme;
+import jakarta.servlet.DispatcherType;
 
 @Configuration
+@SecurityScheme(name = "bearerAuth", type = SecuritySchemeType.HTTP, scheme = "bearer", bearerFormat = "JWT")
 public class SecurityConfig {
 
 	@Autowired
@@ -24,6 +47,13 @@ public class SecurityConfig {
 	@Lazy
 	private AuthFailureHandlerImpl authenticationFailureHandler;
 
+	@Autowired
+	private JwtTokenUtil jwtTokenUtil;
+
+	// bearer token the Prometheus scraper sends for /metrics; empty leaves it to admins
+	@Value("${app.metrics.token:}")
+	private String metricsToken;
+
 	@Bean
 	public PasswordEncoder passwordEncoder() {
 		return new BCryptPasswordEncoder();
@@ -47,7 +77,39 @@ public class SecurityConfig {
 		return authenticationConfiguration.getAuthenticationManager();
 	}
 
+	// images are public and carry no session state, skip the security filters for them entirely
 	@Bean
+	public WebSecurityCustomizer webSecurityCustomizer() {
+		return web -> web.ignoring().requestMatchers("/img/**");
+	}
+
+	// /api/** is stateless: no session is created or read, every call carries a bearer token
+	@Bean
+	@Order(1)
+	public SecurityFilterChain apiFilterChain(HttpSecurity http) throws Exception {
+		http
+				.securityMatcher("/api/**")
+				.csrf(csrf -> csrf.disable())
+				.cors(cors -> cors.disable())
+				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+				.authorizeHttpRequests(auth -> auth
+						// the bearer token was checked when the request started; an async dispatch
+						// (an event stream completing) does not carry the authentication over
+						.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+						.requestMatchers("/api/login", "/api/signup", "/api/register", "/api/forgot-password", "/api/reset-password").permitAll()
+						.requestMatchers(HttpMethod.GET, "/api/categories", "/api/products/**").permitAll()
+						.requestMatchers("/api/user/**").hasRole("USER")
+						.requestMatchers("/api/admin/**").hasRole("ADMIN")
+						.anyRequest().authenticated()
+				)
+				.exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+				.addFilterBefore(new JwtAuthenticationFilter(jwtTokenUtil), UsernamePasswordAuthenticationFilter.class);
+
+		return http.build();
+	}
+
+	@Bean
+	@Order(2)
 	public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
 		http
 				.csrf(csrf -> csrf.disable())
@@ -67,6 +129,7 @@ public class SecurityConfig {
 						.requestMatchers("/api/login", "/api/signup", "/api/forgot-password", "/api/reset-password").permitAll()
 						.requestMatchers("/user/**").hasRole("USER")
 						.requestMatchers("/admin/**").hasRole("ADMIN")
+						.requestMatchers("/metrics").access(metricsAccess())
 						.requestMatchers("/**").permitAll()
 				)
 				.formLogin(form -> form
@@ -82,4 +145,18 @@ public class SecurityConfig {
 
 		return http.build();
 	}
+
+	// the scraper or an admin; the client address proves nothing behind a reverse proxy on the same host
+	private AuthorizationManager<RequestAuthorizationContext> metricsAccess() {
+		AuthorizationManager<RequestAuthorizationContext> admin = AuthorityAuthorizationManager.hasRole("ADMIN");
+		byte[] expected = ("Bearer " + metricsToken).getBytes(StandardCharsets.UTF_8);
+		return (authentication, context) -> {
+			String header = context.getRequest().getHeader(HttpHeaders.AUTHORIZATION);
+			if (!metricsToken.isEmpty() && header != null
+					&& MessageDigest.isEqual(expected, header.getBytes(StandardCharsets.UTF_8))) {
+				return new AuthorizationDecision(true);
+			}
+			return admin.check(authentication, context);
+		};
+	}
 }
\ No newline at end of file
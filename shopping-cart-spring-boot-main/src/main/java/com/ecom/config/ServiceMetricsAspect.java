@@ -0,0 +1,68 @@
+package com.ecom.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import com.ecom.util.MetricsRegistry;
+
+/**
+ * Times every call made through a com.ecom.service interface into
+ * service_method_seconds, labelled with the interface and method name. It runs
+ * outside any transaction advice, so commit time is part of the measurement.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+	private static final String SERVICE_PACKAGE = "com.ecom.service";
+
+	@Autowired
+	private MetricsRegistry metricsRegistry;
+
+	// "service" label per implementation method, resolved once
+	private final Map<Method, String> serviceNames = new ConcurrentHashMap<>();
+
+	@Around("execution(public * com.ecom.service.*.*(..))")
+	public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+		long start = System.nanoTime();
+		String exception = "none";
+		try {
+			return joinPoint.proceed();
+		} catch (Throwable e) {
+			exception = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+			metricsRegistry.histogram("service_method_seconds", "Time spent in a service method",
+					"service", serviceNames.computeIfAbsent(method, this::serviceName),
+					"method", method.getName(),
+					"exception", exception)
+					.record(System.nanoTime() - start);
+		}
+	}
+
+	// the com.ecom.service interface declaring the method, or the class itself if none does
+	private String serviceName(Method method) {
+		Class<?> type = method.getDeclaringClass();
+		for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+			if (SERVICE_PACKAGE.equals(candidate.getPackageName())
+					&& ClassUtils.hasMethod(candidate, method.getName(), method.getParameterTypes())) {
+				return candidate.getSimpleName();
+			}
+		}
+		return type.getSimpleName();
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.ecom.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+@Configuration
+public class SqlBudgetConfig {
+
+	@Value("${app.sql-budget.max-statements:20}")
+	private int maxStatements;
+
+	@Value("${app.sql-budget.max-jdbc-time:250ms}")
+	private Duration maxJdbcTime;
+
+	// wraps the pools, not the proxies and routers in front of them, so statements are counted once
+	@Bean
+	public static BeanPostProcessor sqlCountingDataSourcePostProcessor() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)
+						&& !(bean instanceof ReadWriteRoutingDataSource)) {
+					return new SqlCountingDataSource(dataSource);
+				}
+				return bean;
+			}
+		};
+	}
+
+	// ahead of Spring Security, so the user lookups done while authenticating are counted too
+	@Bean
+	public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter() {
+		FilterRegistrationBean<SqlBudgetFilter> registration = new FilterRegistrationBean<>(
+				new SqlBudgetFilter(maxStatements, maxJdbcTime));
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+		return registration;
+	}
+
+}
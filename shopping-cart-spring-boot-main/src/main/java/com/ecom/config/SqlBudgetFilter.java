@@ -0,0 +1,53 @@
+package com.ecom.config;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.ecom.util.SqlStatementStats;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements and JDBC time of each request and logs the request,
+ * with its statements, when it goes over the statement budget or the JDBC time
+ * threshold. Requests within budget are not logged.
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+	private static final Logger logger = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+	private final int maxStatements;
+
+	private final long maxJdbcMillis;
+
+	public SqlBudgetFilter(int maxStatements, Duration maxJdbcTime) {
+		this.maxStatements = maxStatements;
+		this.maxJdbcMillis = maxJdbcTime.toMillis();
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		SqlStatementStats stats = SqlStatementStats.open();
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			stats.close();
+			if (stats.getStatements() > maxStatements || stats.getJdbcMillis() > maxJdbcMillis) {
+				String query = request.getQueryString() == null ? "" : "?" + request.getQueryString();
+				logger.warn("{} {}{} ran {} SQL statements in {} ms of JDBC time (budget {} statements, {} ms):{}",
+						request.getMethod(), request.getRequestURI(), query, stats.getStatements(),
+						stats.getJdbcMillis(), maxStatements, maxJdbcMillis, stats.summary());
+			}
+		}
+	}
+
+}
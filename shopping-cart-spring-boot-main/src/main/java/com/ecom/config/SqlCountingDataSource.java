@@ -0,0 +1,106 @@
+package com.ecom.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.ecom.util.SqlStatementStats;
+
+/**
+ * Wraps the pool so every statement executed while SqlStatementStats is active is
+ * counted and timed against it. Outside a request the proxies only delegate.
+ */
+public class SqlCountingDataSource extends DelegatingDataSource {
+
+	public SqlCountingDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return wrap(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return wrap(super.getConnection(username, password));
+	}
+
+	private Connection wrap(Connection connection) {
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+				new ConnectionHandler(connection));
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	private static class ConnectionHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		ConnectionHandler(Connection target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			Object result = SqlCountingDataSource.invoke(target, method, args);
+			Class<?> type = switch (method.getName()) {
+				case "prepareStatement" -> PreparedStatement.class;
+				case "prepareCall" -> CallableStatement.class;
+				case "createStatement" -> Statement.class;
+				default -> null;
+			};
+			if (type == null) {
+				return result;
+			}
+			String sql = type == Statement.class ? null : (String) args[0];
+			return Proxy.newProxyInstance(SqlCountingDataSource.class.getClassLoader(), new Class<?>[] { type },
+					new StatementHandler(result, sql));
+		}
+	}
+
+	private static class StatementHandler implements InvocationHandler {
+
+		private final Object target;
+
+		// null for a plain Statement, which gets its SQL with each execute call
+		private final String sql;
+
+		StatementHandler(Object target, String sql) {
+			this.target = target;
+			this.sql = sql;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (!method.getName().startsWith("execute") || !SqlStatementStats.isActive()) {
+				return SqlCountingDataSource.invoke(target, method, args);
+			}
+			long start = System.nanoTime();
+			try {
+				return SqlCountingDataSource.invoke(target, method, args);
+			} finally {
+				String executed = sql != null ? sql
+						: args != null && args.length > 0 && args[0] instanceof String statement ? statement : "batch";
+				SqlStatementStats.record(executed, System.nanoTime() - start);
+			}
+		}
+	}
+
+}
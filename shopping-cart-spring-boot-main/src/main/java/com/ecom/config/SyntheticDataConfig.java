@@ -0,0 +1,54 @@
+package com.ecom.config;
+
+import javax.sql.DataSource;
+
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.ecom.util.SyntheticDataGenerator;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Fills a development database at startup, for example:
+ * java -jar app.jar --app.generator.enabled=true --app.generator.products=1000000 --app.generator.orders=5000000
+ * The runner is always registered and checks the switch when it runs, so an AOT
+ * processed build honours it too.
+ */
+@Configuration
+public class SyntheticDataConfig {
+
+	@Bean
+	public ApplicationRunner syntheticDataRunner(DataSource dataSource, PasswordEncoder passwordEncoder,
+			EntityManagerFactory entityManagerFactory,
+			@Value("${app.generator.enabled:false}") boolean enabled,
+			@Value("${app.generator.categories:25}") int categories,
+			@Value("${app.generator.products:100000}") int products,
+			@Value("${app.generator.users:100000}") int users,
+			@Value("${app.generator.cart-users:10000}") int cartUsers,
+			@Value("${app.generator.orders:1000000}") int orders,
+			@Value("${app.generator.years:3}") int years,
+			@Value("${app.generator.category-skew:1.1}") double categorySkew,
+			@Value("${app.generator.product-skew:1.0}") double productSkew,
+			@Value("${app.generator.buyer-skew:0.8}") double buyerSkew,
+			@Value("${app.generator.password:password}") String password,
+			@Value("${app.generator.seed:42}") long seed,
+			@Value("${app.generator.batch-size:1000}") int batchSize) {
+		return args -> {
+			if (!enabled) {
+				return;
+			}
+			new SyntheticDataGenerator(dataSource).generate(new SyntheticDataGenerator.Settings(categories, products,
+					users, cartUsers, orders, years, categorySkew, productSkew, buyerSkew,
+					// every generated user shares one hash, BCrypt per row would dominate the run
+					passwordEncoder.encode(password), seed, batchSize));
+			// the rows bypassed Hibernate, so cached catalog queries no longer match the tables
+			entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+		};
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.ecom.config;
+
+import java.security.Principal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class TokenUser implements Principal {
+
+	private Integer id;
+
+	private String email;
+
+	private String role;
+
+	@Override
+	public String getName() {
+		return email;
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.ecom.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class UploadConfig {
+
+	@Autowired
+	private MultipartProperties multipartProperties;
+
+	@Value("${app.upload.max-concurrent:4}")
+	private int maxConcurrent;
+
+	@Value("${app.upload.acquire-timeout:5000}")
+	private long acquireTimeout;
+
+	// ahead of Spring Security, whose filters may read request parameters and so parse the body
+	@Bean
+	public FilterRegistrationBean<UploadLimitFilter> uploadLimitFilter() {
+		long maxRequestSize = multipartProperties.getMaxRequestSize().toBytes();
+		FilterRegistrationBean<UploadLimitFilter> registration = new FilterRegistrationBean<>(
+				new UploadLimitFilter(maxRequestSize, maxConcurrent, acquireTimeout));
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+		return registration;
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.ecom.config;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Guards multipart requests before anything reads their body: a declared length
+ * above the request limit is refused with 413 straight away, and only a fixed
+ * number of uploads are parsed at the same time. Parts are spooled to disk by the
+ * container, so the limit bounds disk and I/O pressure rather than heap.
+ */
+public class UploadLimitFilter extends OncePerRequestFilter {
+
+	private static final Logger logger = LoggerFactory.getLogger(UploadLimitFilter.class);
+
+	private final long maxRequestSize;
+
+	private final Semaphore permits;
+
+	private final long acquireTimeout;
+
+	public UploadLimitFilter(long maxRequestSize, int maxConcurrent, long acquireTimeout) {
+		this.maxRequestSize = maxRequestSize;
+		this.permits = new Semaphore(maxConcurrent, true);
+		this.acquireTimeout = acquireTimeout;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String contentType = request.getContentType();
+		return contentType == null || !contentType.toLowerCase().startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		long contentLength = request.getContentLengthLong();
+		if (maxRequestSize > 0 && contentLength > maxRequestSize) {
+			logger.warn("Rejected upload to {}: {} bytes exceeds {}", request.getRequestURI(), contentLength, maxRequestSize);
+			// do not let the container drain the rest of the body on a kept-alive connection
+			response.setHeader(HttpHeaders.CONNECTION, "close");
+			response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Upload exceeds " + maxRequestSize + " bytes");
+			return;
+		}
+
+		boolean acquired;
+		try {
+			acquired = permits.tryAcquire(acquireTimeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		if (!acquired) {
+			logger.warn("Rejected upload to {}: too many uploads in progress", request.getRequestURI());
+			response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many uploads in progress");
+			return;
+		}
+
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			permits.release();
+		}
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.ecom.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier (blocking inside
+ * synchronized or a native frame) for longer than a threshold. Each event is
+ * attributed to the first frame from our code or from Hibernate, so pinning in
+ * either is visible in the log and in the summary written on shutdown.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+	private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+	private static final List<String> ATTRIBUTED_PACKAGES = List.of("com.ecom.", "org.hibernate.", "com.zaxxer.hikari.");
+
+	private final Duration threshold;
+
+	private final Map<String, LongAdder> pinnedBySource = new ConcurrentHashMap<>();
+
+	private RecordingStream stream;
+
+	public VirtualThreadPinningMonitor(@Value("${app.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+		this.threshold = threshold;
+	}
+
+	@Override
+	public void start() {
+		stream = new RecordingStream();
+		stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+		stream.onEvent(PINNED_EVENT, this::onPinned);
+		stream.startAsync();
+		logger.info("Reporting virtual threads pinned for more than {} ms", threshold.toMillis());
+	}
+
+	@Override
+	public void stop() {
+		if (stream != null) {
+			stream.close();
+			stream = null;
+		}
+		pinnedBySource.forEach((source, count) -> logger.info("Pinned {} times at {}", count.sum(), source));
+	}
+
+	@Override
+	public boolean isRunning() {
+		return stream != null;
+	}
+
+	public Map<String, LongAdder> getPinnedBySource() {
+		return pinnedBySource;
+	}
+
+	private void onPinned(RecordedEvent event) {
+		String source = source(event.getStackTrace());
+		pinnedBySource.computeIfAbsent(source, key -> new LongAdder()).increment();
+		logger.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), source);
+	}
+
+	private String source(RecordedStackTrace stackTrace) {
+		if (stackTrace == null) {
+			return "unknown";
+		}
+		for (RecordedFrame frame : stackTrace.getFrames()) {
+			String type = frame.getMethod().getType().getName();
+			for (String pkg : ATTRIBUTED_PACKAGES) {
+				if (type.startsWith(pkg)) {
+					return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+				}
+			}
+		}
+		RecordedFrame top = stackTrace.getFrames().isEmpty() ? null : stackTrace.getFrames().get(0);
+		return top == null ? "unknown" : top.getMethod().getType().getName() + "." + top.getMethod().getName();
+	}
+
+}
@@ -1,17 +1,13 @@
 package com.ecom.controller;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.security.Principal;
 import java.util.List;
 import com.ecom.util.CommonUtil;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -28,8 +24,10 @@ import com.ecom.model.Category;
 import com.ecom.model.Product;
 import com.ecom.model.ProductOrder;
 import com.ecom.model.UserDtls;
+import com.ecom.model.UserSummary;
 import com.ecom.service.CartService;
 import com.ecom.service.CategoryService;
+import com.ecom.service.ImageService;
 import com.ecom.service.OrderService;
 import com.ecom.service.ProductService;
 import com.ecom.service.UserService;
@@ -37,6 +35,8 @@ import com.ecom.util.OrderStatus;
 
 import jakarta.servlet.http.HttpSession;
 
+// only admins use it, so it is created on the first admin request rather than at startup
+@Lazy
 @Controller
 @RequestMapping("/admin")
 public class AdminController {
@@ -57,6 +57,9 @@ public class AdminController {
 	@Autowired
 	private OrderService orderService;
 
+	@Autowired
+	private ImageService imageService;
+
 
 	@Autowired
 	private PasswordEncoder passwordEncoder;
@@ -109,29 +112,20 @@ public class AdminController {
 	public String saveCategory(@ModelAttribute Category category, @RequestParam("file") MultipartFile file,
 							   HttpSession session) throws IOException {
 
-		String imageName = file != null ? file.getOriginalFilename() : "default.jpg";
-		category.setImageName(imageName);
-
 		Boolean existCategory = categoryService.existCategory(category.getName());
 
 		if (existCategory) {
 			session.setAttribute("errorMsg", "Category Name already exists");
 		} else {
 
+			String imageName = file == null || file.isEmpty() ? "default.jpg" : imageService.saveImage(file, "category_img");
+			category.setImageName(imageName);
+
 			Category saveCategory = categoryService.saveCategory(category);
 
 			if (ObjectUtils.isEmpty(saveCategory)) {
 				session.setAttribute("errorMsg", "Not saved ! internal server error");
 			} else {
-
-				File saveFile = new ClassPathResource("static/img").getFile();
-
-				Path path = Paths.get(saveFile.getAbsolutePath() + File.separator + "category_img" + File.separator
-						+ file.getOriginalFilename());
-
-				// System.out.println(path);
-				Files.copy(file.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
-
 				session.setAttribute("succMsg", "Saved successfully");
 			}
 		}
@@ -163,7 +157,7 @@ public class AdminController {
 								 HttpSession session) throws IOException {
 
 		Category oldCategory = categoryService.getCategoryById(category.getId());
-		String imageName = file.isEmpty() ? oldCategory.getImageName() : file.getOriginalFilename();
+		String imageName = file.isEmpty() ? oldCategory.getImageName() : imageService.saveImage(file, "category_img");
 
 		if (!ObjectUtils.isEmpty(category)) {
 
@@ -175,17 +169,6 @@ public class AdminController {
 		Category updateCategory = categoryService.saveCategory(oldCategory);
 
 		if (!ObjectUtils.isEmpty(updateCategory)) {
-
-			if (!file.isEmpty()) {
-				File saveFile = new ClassPathResource("static/img").getFile();
-
-				Path path = Paths.get(saveFile.getAbsolutePath() + File.separator + "category_img" + File.separator
-						+ file.getOriginalFilename());
-
-				// System.out.println(path);
-				Files.copy(file.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
-			}
-
 			session.setAttribute("succMsg", "Category update success");
 		} else {
 			session.setAttribute("errorMsg", "something wrong on server");
@@ -198,7 +181,7 @@ public class AdminController {
 	public String saveProduct(@ModelAttribute Product product, @RequestParam("file") MultipartFile image,
 							  HttpSession session) throws IOException {
 
-		String imageName = image.isEmpty() ? "default.jpg" : image.getOriginalFilename();
+		String imageName = image.isEmpty() ? "default.jpg" : imageService.saveImage(image, "product_img");
 
 		product.setImage(imageName);
 		product.setDiscount(0);
@@ -206,15 +189,6 @@ public class AdminController {
 		Product saveProduct = productService.saveProduct(product);
 
 		if (!ObjectUtils.isEmpty(saveProduct)) {
-
-			File saveFile = new ClassPathResource("static/img").getFile();
-
-			Path path = Paths.get(saveFile.getAbsolutePath() + File.separator + "product_img" + File.separator
-					+ image.getOriginalFilename());
-
-			// System.out.println(path);
-			Files.copy(image.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
-
 			session.setAttribute("succMsg", "Product Saved Success");
 		} else {
 			session.setAttribute("errorMsg", "something wrong on server");
@@ -290,15 +264,22 @@ public class AdminController {
 	}
 
 	@GetMapping("/users")
-	public String getAllUsers(Model m, @RequestParam Integer type) {
-		List<UserDtls> users = null;
+	public String getAllUsers(Model m, @RequestParam Integer type, @RequestParam(defaultValue = "") String ch,
+							  @RequestParam(name = "after", required = false) Integer after,
+							  @RequestParam(name = "pageSize", defaultValue = "20") Integer pageSize) {
+		Window<UserSummary> users = null;
 		if (type == 1) {
-			users = userService.getUsers("ROLE_USER");
+			users = userService.getUsers("ROLE_USER", ch, after, pageSize);
 		} else {
-			users = userService.getUsers("ROLE_ADMIN");
+			users = userService.getUsers("ROLE_ADMIN", ch, after, pageSize);
 		}
 		m.addAttribute("userType",type);
-		m.addAttribute("users", users);
+		m.addAttribute("users", users.getContent());
+		m.addAttribute("ch", ch);
+		m.addAttribute("pageSize", pageSize);
+		m.addAttribute("isFirst", after == null);
+		m.addAttribute("isLast", !users.hasNext());
+		m.addAttribute("nextAfter", users.isEmpty() ? null : users.getContent().get(users.size() - 1).getId());
 		return "/admin/users";
 	}
 
@@ -405,20 +386,11 @@ public class AdminController {
 	public String saveAdmin(@ModelAttribute UserDtls user, @RequestParam("img") MultipartFile file, HttpSession session)
 			throws IOException {
 
-		String imageName = file.isEmpty() ? "default.jpg" : file.getOriginalFilename();
+		String imageName = file.isEmpty() ? "default.jpg" : imageService.saveImage(file, "profile_img");
 		user.setProfileImage(imageName);
 		UserDtls saveUser = userService.saveAdmin(user);
 
 		if (!ObjectUtils.isEmpty(saveUser)) {
-			if (!file.isEmpty()) {
-				File saveFile = new ClassPathResource("static/img").getFile();
-
-				Path path = Paths.get(saveFile.getAbsolutePath() + File.separator + "profile_img" + File.separator
-						+ file.getOriginalFilename());
-
-//				System.out.println(path);
-				Files.copy(file.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
-			}
 			session.setAttribute("succMsg", "Register successfully");
 		} else {
 			session.setAttribute("errorMsg", "something wrong on server");
@@ -1,17 +1,10 @@
 package com.ecom.controller;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.security.Principal;
 import java.util.List;
-import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.domain.Page;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Controller;
@@ -24,13 +17,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.ecom.config.PageCacheFilter;
 import com.ecom.model.Category;
 import com.ecom.model.Product;
 import com.ecom.model.UserDtls;
 import com.ecom.service.CartService;
 import com.ecom.service.CategoryService;
+import com.ecom.service.ImageService;
+import com.ecom.service.PopularityService;
 import com.ecom.service.ProductService;
 import com.ecom.service.UserService;
+import com.ecom.util.CommonUtil;
 
 import io.micrometer.common.util.StringUtils;
 import jakarta.servlet.http.HttpServletRequest;
@@ -54,6 +51,15 @@ public class HomeController {
     @Autowired
     private CartService cartService;
 
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private PopularityService popularityService;
+
+    @Autowired
+    private CommonUtil commonUtil;
+
     @ModelAttribute
     public void getUserDetails(Principal p, Model m) {
         if (p != null) {
@@ -69,13 +75,17 @@ public class HomeController {
     }
 
     @GetMapping("/")
-    public String index(Model m) {
+    public String index(Model m, HttpServletRequest request) {
         List<Category> allActiveCategory = categoryService.getAllActiveCategory().stream()
                 .sorted((c1, c2) -> c2.getId().compareTo(c1.getId())).limit(6).toList();
-        List<Product> allActiveProducts = productService.getAllActiveProducts("").stream()
+        List<Product> activeProducts = productService.getAllActiveProducts("");
+        List<Product> allActiveProducts = activeProducts.stream()
                 .sorted((p1, p2) -> p2.getId().compareTo(p1.getId())).limit(8).toList();
         m.addAttribute("category", allActiveCategory);
         m.addAttribute("products", allActiveProducts);
+        m.addAttribute("bestSellers", popularityService.getBestSellers(activeProducts, 8));
+        m.addAttribute("trending", popularityService.getTrendingByCategory(activeProducts, 3, 4));
+        expireWithRankings(request);
         return "index";
     }
 
@@ -93,14 +103,18 @@ public class HomeController {
     public String products(Model m, @RequestParam(value = "category", defaultValue = "") String category,
                            @RequestParam(name = "pageNo", defaultValue = "0") Integer pageNo,
                            @RequestParam(name = "pageSize", defaultValue = "5") Integer pageSize,
-                           @RequestParam(defaultValue = "") String ch) {
+                           @RequestParam(defaultValue = "") String ch,
+                           @RequestParam(defaultValue = "") String sort, HttpServletRequest request) {
 
         List<Category> categories = categoryService.getAllActiveCategory();
         m.addAttribute("paramValue", category);
         m.addAttribute("categories", categories);
 
         Page<Product> page = null;
-        if (StringUtils.isEmpty(ch)) {
+        if (StringUtils.isEmpty(ch) && "popular".equals(sort)) {
+            page = popularityService.getPopularProductPagination(pageNo, pageSize, category);
+            expireWithRankings(request);
+        } else if (StringUtils.isEmpty(ch)) {
             page = productService.getAllActiveProductPagination(pageNo, pageSize, category);
         } else {
             page = productService.searchActiveProductPagination(pageNo, pageSize, category, ch);
@@ -116,10 +130,16 @@ public class HomeController {
         m.addAttribute("totalPages", page.getTotalPages());
         m.addAttribute("isFirst", page.isFirst());
         m.addAttribute("isLast", page.isLast());
+        m.addAttribute("sort", sort);
 
         return "product";
     }
 
+    // rankings move with views and orders, which the page cache does not see
+    private void expireWithRankings(HttpServletRequest request) {
+        request.setAttribute(PageCacheFilter.EXPIRES_AT, System.currentTimeMillis() + popularityService.getPageTtl());
+    }
+
     @GetMapping("/product/{id}")
     public String product(@PathVariable int id, Model m) {
         Product productById = productService.getProductById(id);
@@ -136,19 +156,17 @@ public class HomeController {
         if (existsEmail) {
             session.setAttribute("errorMsg", "Email already exist");
         } else {
-            String imageName = file.isEmpty() ? "default.jpg" : file.getOriginalFilename();
+            String imageName;
+            try {
+                imageName = file.isEmpty() ? "default.jpg" : imageService.saveImage(file, "profile_img");
+            } catch (IOException e) {
+                session.setAttribute("errorMsg", "Profile image must be a JPEG, PNG, GIF or WebP image");
+                return "redirect:/register";
+            }
             user.setProfileImage(imageName);
             UserDtls saveUser = userService.saveUser(user);
 
             if (!ObjectUtils.isEmpty(saveUser)) {
-                if (!file.isEmpty()) {
-                    File saveFile = new ClassPathResource("static/img").getFile();
-
-                    Path path = Paths.get(saveFile.getAbsolutePath() + File.separator + "profile_img" + File.separator
-                            + file.getOriginalFilename());
-
-                    Files.copy(file.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
-                }
                 session.setAttribute("succMsg", "Register successfully");
             } else {
                 session.setAttribute("errorMsg", "something wrong on server");
@@ -171,9 +189,11 @@ public class HomeController {
         if (ObjectUtils.isEmpty(userByEmail)) {
             session.setAttribute("errorMsg", "Invalid email");
         } else {
-            String resetToken = UUID.randomUUID().toString();
-            userService.updateUserResetToken(email, resetToken);
-            session.setAttribute("succMsg", "Password reset token generated");
+            if (commonUtil.sendResetLink(userByEmail, userService.generateResetToken(userByEmail))) {
+                session.setAttribute("succMsg", "Password reset link sent to your email");
+            } else {
+                session.setAttribute("errorMsg", "Could not send the reset email, try again later");
+            }
         }
 
         return "redirect:/forgot-password";
@@ -200,7 +220,6 @@ public class HomeController {
             return "message";
         } else {
             userByToken.setPassword(passwordEncoder.encode(password));
-            userByToken.setResetToken(null);
             userService.updateUser(userByToken);
             m.addAttribute("msg", "Password change successfully");
             return "message";
@@ -2,6 +2,9 @@ package com.ecom.controller;
 
 import com.ecom.model.*;
 import com.ecom.service.*;
+import com.ecom.util.CatalogVersion;
+import com.ecom.util.CommonUtil;
+import com.ecom.util.JwtTokenUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,19 +12,20 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.util.ObjectUtils;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.WebRequest;
 
 import java.io.File;
 import java.io.IOException;
@@ -31,7 +35,6 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api")
@@ -39,7 +42,6 @@ import java.util.UUID;
 public class HomeRestController {
 
     private static final Logger logger = LoggerFactory.getLogger(HomeRestController.class);
-    private static final String UPLOAD_DIR = "static/img/profile_img/";
 
     @Autowired
     private CategoryService categoryService;
@@ -56,51 +58,114 @@ public class HomeRestController {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private LoginAttemptService loginAttemptService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private PopularityService popularityService;
+
+    @Autowired
+    private CommonUtil commonUtil;
+
 
 
     // Get all active categories
     @GetMapping("/categories")
     @Operation(summary = "Get active categories", description = "Retrieves all active categories")
     @ApiResponse(responseCode = "200", description = "Categories retrieved successfully")
-    public ResponseEntity<List<Category>> getActiveCategories() {
+    @ApiResponse(responseCode = "304", description = "Catalog unchanged since the given ETag")
+    public ResponseEntity<List<Category>> getActiveCategories(@Parameter(hidden = true) WebRequest request) {
+        if (isCatalogNotModified(request)) {
+            return null;
+        }
         logger.info("Fetching active categories");
-        return ResponseEntity.ok(categoryService.getAllActiveCategory());
+        return catalogResponse(categoryService.getAllActiveCategory());
     }
 
     // Get paginated products
     @GetMapping("/products")
-    @Operation(summary = "Get products", description = "Retrieves paginated active products by category")
+    @Operation(summary = "Get products", description = "Retrieves paginated active products by category, optionally best sellers first")
     @ApiResponse(responseCode = "200", description = "Products retrieved successfully")
+    @ApiResponse(responseCode = "304", description = "Catalog unchanged since the given ETag")
     public ResponseEntity<Page<Product>> getProducts(
             @Parameter(description = "Category name (optional)") @RequestParam(defaultValue = "") String category,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Page size") @RequestParam(defaultValue = "12") int size) {
-        logger.info("Fetching products: category={}, page={}, size={}", category, page, size);
-        return ResponseEntity.ok(productService.getAllActiveProductPagination(page, size, category));
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "12") int size,
+            @Parameter(description = "\"popular\" to list best sellers first (optional)") @RequestParam(defaultValue = "") String sort,
+            @Parameter(hidden = true) WebRequest request) {
+        // the ranking moves with orders, so the catalog ETag does not cover it
+        boolean popular = "popular".equals(sort);
+        if (!popular && isCatalogNotModified(request)) {
+            return null;
+        }
+        logger.info("Fetching products: category={}, page={}, size={}, sort={}", category, page, size, sort);
+        if (popular) {
+            return ResponseEntity.ok(popularityService.getPopularProductPagination(page, size, category));
+        }
+        return catalogResponse(productService.getAllActiveProductPagination(page, size, category));
     }
 
     // Get product by ID
     @GetMapping("/products/{id}")
     @Operation(summary = "Get product", description = "Retrieves a product by ID")
     @ApiResponse(responseCode = "200", description = "Product retrieved successfully")
+    @ApiResponse(responseCode = "304", description = "Catalog unchanged since the given ETag")
     @ApiResponse(responseCode = "404", description = "Product not found")
-    public ResponseEntity<?> getProduct(@Parameter(description = "Product ID") @PathVariable int id) {
+    public ResponseEntity<?> getProduct(@Parameter(description = "Product ID") @PathVariable int id,
+                                        @Parameter(hidden = true) WebRequest request) {
+        if (isCatalogNotModified(request)) {
+            return null;
+        }
         logger.info("Fetching product: id={}", id);
         Product product = productService.getProductById(id);
         if (product == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Product not found"));
         }
-        return ResponseEntity.ok(product);
+        return catalogResponse(product);
+    }
+
+    // Products frequently bought together with a product
+    @GetMapping("/products/{id}/related")
+    @Operation(summary = "Get related products", description = "Retrieves products most often ordered together with a product")
+    @ApiResponse(responseCode = "200", description = "Related products retrieved successfully")
+    public ResponseEntity<List<Product>> getRelatedProducts(@Parameter(description = "Product ID") @PathVariable int id) {
+        // follows orders rather than the catalog, so the catalog ETag does not apply
+        return ResponseEntity.ok(recommendationService.getRelatedProducts(id));
     }
 
     // Search products
     @GetMapping("/products/search")
     @Operation(summary = "Search products", description = "Searches products by query")
     @ApiResponse(responseCode = "200", description = "Products retrieved successfully")
+    @ApiResponse(responseCode = "304", description = "Catalog unchanged since the given ETag")
     public ResponseEntity<List<Product>> searchProducts(
-            @Parameter(description = "Search query") @RequestParam String query) {
+            @Parameter(description = "Search query") @RequestParam String query,
+            @Parameter(hidden = true) WebRequest request) {
+        if (isCatalogNotModified(request)) {
+            return null;
+        }
         logger.info("Searching products: query={}", query);
-        return ResponseEntity.ok(productService.searchProduct(query));
+        return catalogResponse(productService.searchProduct(query));
+    }
+
+    // Sets ETag/Last-Modified from the catalog version and answers 304 when the client already has it
+    private boolean isCatalogNotModified(WebRequest request) {
+        CatalogVersion.Snapshot snapshot = catalogVersion.current();
+        return request.checkNotModified(snapshot.etag(), snapshot.lastModified());
+    }
+
+    // clients and CDNs may store catalog responses but must revalidate them
+    private <T> ResponseEntity<T> catalogResponse(T body) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(body);
     }
 
     // User registration
@@ -130,7 +195,7 @@ public class HomeRestController {
         try {
             UserDtls user = new UserDtls();
             user.setEmail(email);
-            user.setPassword(passwordEncoder.encode(password));
+            user.setPassword(password);
             user.setName(name);
             user.setProfileImage("default.jpg");
             user.setRole("ROLE_USER");
@@ -167,13 +232,27 @@ public class HomeRestController {
                     new UsernamePasswordAuthenticationToken(email, password)
             );
 
+            loginAttemptService.loginSucceeded(email);
+
             // Generate JWT token
             UserDtls user = userService.getUserByEmail(email);
+            String token = jwtTokenUtil.generateToken(user);
 
             return ResponseEntity.ok(Map.of(
-                    "user", user
+                    "token", token,
+                    "tokenType", "Bearer",
+                    "expiresIn", jwtTokenUtil.getExpiration() / 1000,
+                    "user", Map.of(
+                            "id", user.getId(),
+                            "name", user.getName(),
+                            "email", user.getEmail(),
+                            "role", user.getRole()
+                    )
             ));
         } catch (AuthenticationException e) {
+            if (e instanceof BadCredentialsException) {
+                loginAttemptService.loginFailed(email);
+            }
             logger.error("Invalid login credentials: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid email or password"));
@@ -182,9 +261,10 @@ public class HomeRestController {
 
     // Forgot password - initiate reset
     @PostMapping("/forgot-password")
-    @Operation(summary = "Initiate password reset", description = "Generates a password reset token for the user")
-    @ApiResponse(responseCode = "200", description = "Reset token generated")
+    @Operation(summary = "Initiate password reset", description = "Mails the user a link with a password reset token")
+    @ApiResponse(responseCode = "200", description = "Reset link sent")
     @ApiResponse(responseCode = "400", description = "Invalid email")
+    @ApiResponse(responseCode = "503", description = "The reset mail could not be sent")
     public ResponseEntity<?> forgotPassword(
             @Parameter(description = "User email (JSON)") @RequestBody Map<String, String> request) {
         String email = request.get("email");
@@ -201,10 +281,12 @@ public class HomeRestController {
                     .body(Map.of("error", "Invalid email"));
         }
 
-        String token = UUID.randomUUID().toString();
-        userService.updateUserResetToken(email, token);
-        // TODO: Send reset token via email (not implemented)
-        return ResponseEntity.ok(Map.of("message", "Password reset token generated", "token", token));
+        // the token is a credential for the account, it goes to the mailbox and never into the response
+        if (!commonUtil.sendResetLink(user, userService.generateResetToken(user))) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Could not send the reset email, try again later"));
+        }
+        return ResponseEntity.ok(Map.of("message", "Password reset link sent to your email"));
     }
 
     // Reset password with token
@@ -230,7 +312,6 @@ public class HomeRestController {
         }
 
         user.setPassword(passwordEncoder.encode(newPassword));
-        user.setResetToken(null);
         userService.updateUser(user);
         return ResponseEntity.ok(Map.of("message", "Password reset successfully"));
     }
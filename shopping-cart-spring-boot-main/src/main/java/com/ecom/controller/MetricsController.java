@@ -0,0 +1,32 @@
+package com.ecom.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ecom.util.MetricsRegistry;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+@RestController
+@Hidden
+public class MetricsController {
+
+	private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+
+	@Autowired
+	private MetricsRegistry metricsRegistry;
+
+	// Prometheus scrape target; needs app.metrics.token as a bearer token, or an admin (see SecurityConfig)
+	@GetMapping("/metrics")
+	public ResponseEntity<String> metrics() {
+		return ResponseEntity.ok()
+				.contentType(PROMETHEUS_TEXT)
+				.cacheControl(CacheControl.noStore())
+				.body(metricsRegistry.scrape());
+	}
+
+}
@@ -5,11 +5,14 @@ import com.ecom.service.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -19,27 +22,30 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
+// only admins use it, so it is created on the first admin request rather than at startup
+@Lazy
 @RestController
 @RequestMapping("/api/admin")
 @PreAuthorize("hasRole('ADMIN')")
 @Tag(name = "Admin API", description = "Endpoints for admin management of categories, products, users, and orders")
+@SecurityRequirement(name = "bearerAuth")
 public class RestAdminController {
 
     private static final Logger logger = LoggerFactory.getLogger(RestAdminController.class);
-    private static final String UPLOAD_DIR = "uploads/";
 
     @Autowired private CategoryService categoryService;
     @Autowired private ProductService productService;
     @Autowired private UserService userService;
     @Autowired private OrderService orderService;
     @Autowired private CartService cartService;
+    @Autowired private ImageService imageService;
+    @Autowired private ProductStatsService productStatsService;
+    @Autowired private CampaignService campaignService;
 
     // ========== CATEGORY ENDPOINTS ==========
     @GetMapping("/categories")
@@ -71,10 +77,7 @@ public class RestAdminController {
 
         try {
             // Save image file
-            String fileName = UUID.randomUUID() + "_" + image.getOriginalFilename();
-            Path filePath = Paths.get(UPLOAD_DIR, fileName);
-            Files.createDirectories(filePath.getParent());
-            Files.write(filePath, image.getBytes());
+            String fileName = imageService.saveImage(image, "category_img");
 
             Category category = new Category();
             category.setName(name.trim());
@@ -119,10 +122,7 @@ public class RestAdminController {
 
             // Update image if provided
             if (image != null && !image.isEmpty()) {
-                String fileName = UUID.randomUUID() + "_" + image.getOriginalFilename();
-                Path filePath = Paths.get(UPLOAD_DIR, fileName);
-                Files.createDirectories(filePath.getParent());
-                Files.write(filePath, image.getBytes());
+                String fileName = imageService.saveImage(image, "category_img");
                 existing.setImageName(fileName);
             }
 
@@ -179,6 +179,27 @@ public class RestAdminController {
         return ResponseEntity.ok(productService.getAllProductsPagination(page, size));
     }
 
+    @GetMapping("/products/stats")
+    @Operation(summary = "Get product statistics", description = "Retrieves view and add-to-cart counts per product, most viewed first")
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    public ResponseEntity<Page<ProductStats>> getProductStats(
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size) {
+        logger.info("Fetching product stats: page={}, size={}", page, size);
+        return ResponseEntity.ok(productStatsService.getStatsPagination(page, size));
+    }
+
+    @GetMapping("/products/{id}/stats")
+    @Operation(summary = "Get product statistics", description = "Retrieves the view and add-to-cart counts of a product")
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Product not found")
+    public ResponseEntity<?> getProductStats(@Parameter(description = "Product ID") @PathVariable int id) {
+        if (productService.getProductById(id) == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Product not found"));
+        }
+        return ResponseEntity.ok(productStatsService.getStats(id));
+    }
+
     @PostMapping("/products")
     @Operation(summary = "Create product", description = "Creates a new product")
     @ApiResponse(responseCode = "200", description = "Product created successfully")
@@ -223,7 +244,7 @@ public class RestAdminController {
             existing.setDescription(product.getDescription());
             existing.setPrice(product.getPrice());
             existing.setDiscount(product.getDiscount());
-            existing.setDiscountPrice(product.getPrice() * (100 - product.getDiscount()) / 100);
+            existing.setDiscountPrice(product.getPrice().percentOff(product.getDiscount()));
 
             Product updatedProduct = productService.saveProduct(existing);
             return ResponseEntity.ok(updatedProduct);
@@ -261,12 +282,22 @@ public class RestAdminController {
 
     // ========== USER MANAGEMENT ==========
     @GetMapping("/users")
-    @Operation(summary = "Get users by role", description = "Retrieves users by role")
+    @Operation(summary = "Get users by role", description = "Retrieves a keyset-paginated list of users by role with optional email or name prefix search")
     @ApiResponse(responseCode = "200", description = "Users retrieved successfully")
-    public ResponseEntity<List<UserDtls>> getUsersByRole(
-            @Parameter(description = "User role") @RequestParam String role) {
-        logger.info("Fetching users: role={}", role);
-        return ResponseEntity.ok(userService.getUsers(role));
+    public ResponseEntity<Map<String, Object>> getUsersByRole(
+            @Parameter(description = "User role") @RequestParam String role,
+            @Parameter(description = "Email or name prefix (optional)") @RequestParam(required = false) String search,
+            @Parameter(description = "Last user ID of the previous page (optional)") @RequestParam(required = false) Integer after,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        logger.info("Fetching users: role={}, search={}, after={}, size={}", role, search, after, size);
+        Window<UserSummary> users = userService.getUsers(role, search, after, size);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("content", users.getContent());
+        body.put("size", users.size());
+        body.put("hasNext", users.hasNext());
+        body.put("nextCursor", users.hasNext() ? users.getContent().get(users.size() - 1).getId() : null);
+        return ResponseEntity.ok(body);
     }
 
     @PutMapping("/users/{id}/status")
@@ -314,4 +345,45 @@ public class RestAdminController {
         }
         return ResponseEntity.ok(order);
     }
-}
\ No newline at end of file
+
+    // ========== DISCOUNT CAMPAIGNS ==========
+    @GetMapping("/campaigns")
+    @Operation(summary = "Get all campaigns", description = "Retrieves all discount campaigns, latest start first")
+    @ApiResponse(responseCode = "200", description = "Campaigns retrieved successfully")
+    public ResponseEntity<List<DiscountCampaign>> getAllCampaigns() {
+        return ResponseEntity.ok(campaignService.getAllCampaigns());
+    }
+
+    @PostMapping("/campaigns")
+    @Operation(summary = "Create campaign", description = "Schedules a percentage discount on a category (or on every product when no category is given) between two times")
+    @ApiResponse(responseCode = "200", description = "Campaign scheduled, or started when it is already due")
+    @ApiResponse(responseCode = "400", description = "Invalid input")
+    public ResponseEntity<?> createCampaign(@RequestBody DiscountCampaign campaign) {
+        logger.info("Creating campaign: name={}, category={}, percentOff={}", campaign.getName(), campaign.getCategory(),
+                campaign.getPercentOff());
+        if (campaign.getPercentOff() < 1 || campaign.getPercentOff() > 90) {
+            return ResponseEntity.badRequest().body(Map.of("error", "percentOff must be between 1 and 90"));
+        }
+        if (campaign.getStartsAt() == null || campaign.getEndsAt() == null
+                || !campaign.getEndsAt().isAfter(campaign.getStartsAt())
+                || !campaign.getEndsAt().isAfter(LocalDateTime.now())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "endsAt must be in the future and after startsAt"));
+        }
+        if (campaign.getCategory() != null && !categoryService.existCategory(campaign.getCategory())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown category: " + campaign.getCategory()));
+        }
+        return ResponseEntity.ok(campaignService.saveCampaign(campaign));
+    }
+
+    @DeleteMapping("/campaigns/{id}")
+    @Operation(summary = "Cancel campaign", description = "Cancels a scheduled campaign, or stops a running one and restores the products' own discounts")
+    @ApiResponse(responseCode = "200", description = "Campaign cancelled")
+    @ApiResponse(responseCode = "404", description = "Campaign not found")
+    public ResponseEntity<?> cancelCampaign(@Parameter(description = "Campaign ID") @PathVariable int id) {
+        DiscountCampaign campaign = campaignService.cancelCampaign(id);
+        if (campaign == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Campaign not found"));
+        }
+        return ResponseEntity.ok(campaign);
+    }
+}
@@ -1,27 +1,35 @@
 package com.ecom.controller;
 
+import com.ecom.config.TokenUser;
 import com.ecom.model.*;
 import com.ecom.service.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.core.Authentication;
 import org.springframework.util.ObjectUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.Serializable;
+import java.security.Principal;
 import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/user")
 @Tag(name = "User API", description = "Endpoints for user cart, orders, and profile management")
+@SecurityRequirement(name = "bearerAuth")
 public class RestUserController {
 
     private static final Logger logger = LoggerFactory.getLogger(RestUserController.class);
@@ -29,15 +37,18 @@ public class RestUserController {
     @Autowired private UserService userService;
     @Autowired private CartService cartService;
     @Autowired private OrderService orderService;
+    @Autowired private ImageService imageService;
+    @Autowired private EventService eventService;
 
     // ========== CART ENDPOINTS ==========
     @PostMapping("/cart")
-    @Operation(summary = "Add product to cart", description = "Adds a product to the specified user's cart")
+    @Operation(summary = "Add product to cart", description = "Adds a product to the logged in user's cart")
     @ApiResponse(responseCode = "200", description = "Product added to cart successfully")
     @ApiResponse(responseCode = "400", description = "Invalid user ID or request")
     public ResponseEntity<Map<String, Object>> addToCart(
-            @Parameter(description = "User ID") @RequestParam Integer userId,
+            @Parameter(hidden = true) Principal p,
             @Parameter(description = "Product ID") @RequestParam Integer productId) {
+        Integer userId = getLoggedInUserId(p);
         logger.info("Received add to cart request: userId={}, productId={}", userId, productId);
 
 
@@ -59,11 +70,12 @@ public class RestUserController {
     }
 
     @GetMapping("/cart")
-    @Operation(summary = "Get user cart", description = "Retrieves all items in the specified user's cart")
+    @Operation(summary = "Get user cart", description = "Retrieves all items in the logged in user's cart")
     @ApiResponse(responseCode = "200", description = "Cart items retrieved successfully")
     @ApiResponse(responseCode = "400", description = "Invalid user ID")
     public ResponseEntity<?> getCart(
-            @Parameter(description = "User ID") @RequestParam Integer userId) {
+            @Parameter(hidden = true) Principal p) {
+        Integer userId = getLoggedInUserId(p);
         logger.info("Received get cart request: userId={}", userId);
 
 
@@ -77,9 +89,10 @@ public class RestUserController {
     @ApiResponse(responseCode = "200", description = "Quantity updated successfully")
     @ApiResponse(responseCode = "400", description = "Invalid user ID or request")
     public ResponseEntity<?> updateCartQuantity(
-            @Parameter(description = "User ID") @RequestParam Integer userId,
+            @Parameter(hidden = true) Principal p,
             @Parameter(description = "Cart ID") @PathVariable Integer cartId,
             @Parameter(description = "Operation (increment/decrement)") @RequestParam String operation) {
+        Integer userId = getLoggedInUserId(p);
         logger.info("Received update cart quantity request: userId={}, cartId={}, operation={}", userId, cartId, operation);
 
 
@@ -98,12 +111,13 @@ public class RestUserController {
 
     // ========== ORDER ENDPOINTS ==========
     @PostMapping("/orders")
-    @Operation(summary = "Create order", description = "Creates a new order from cart items for the specified user")
+    @Operation(summary = "Create order", description = "Creates a new order from cart items for the logged in user")
     @ApiResponse(responseCode = "201", description = "Order created successfully")
     @ApiResponse(responseCode = "400", description = "Invalid user ID, empty cart, or invalid request")
     public ResponseEntity<?> createOrder(
-            @Parameter(description = "User ID") @RequestParam Integer userId,
+            @Parameter(hidden = true) Principal p,
             @Parameter(description = "Order details") @RequestBody OrderRequest request) {
+        Integer userId = getLoggedInUserId(p);
         logger.info("Received order create request: userId={}, request={}", userId, request);
 
 
@@ -146,11 +160,12 @@ public class RestUserController {
     }
 
     @GetMapping("/orders")
-    @Operation(summary = "Get user orders", description = "Retrieves all orders for the specified user")
+    @Operation(summary = "Get user orders", description = "Retrieves all orders for the logged in user")
     @ApiResponse(responseCode = "200", description = "Orders retrieved successfully")
     @ApiResponse(responseCode = "400", description = "Invalid user ID")
     public ResponseEntity<?> getUserOrders(
-            @Parameter(description = "User ID") @RequestParam Integer userId) {
+            @Parameter(hidden = true) Principal p) {
+        Integer userId = getLoggedInUserId(p);
         logger.info("Received get orders request: userId={}", userId);
 
 
@@ -168,8 +183,9 @@ public class RestUserController {
     @ApiResponse(responseCode = "400", description = "Invalid user ID or order ID")
     @ApiResponse(responseCode = "404", description = "Order not found")
     public ResponseEntity<?> getOrderDetails(
-            @Parameter(description = "User ID") @RequestParam Integer userId,
+            @Parameter(hidden = true) Principal p,
             @Parameter(description = "Order ID") @PathVariable String orderId) {
+        Integer userId = getLoggedInUserId(p);
         logger.info("Received get order details request: userId={}, orderId={}", userId, orderId);
 
 
@@ -190,6 +206,21 @@ public class RestUserController {
         }
     }
 
+    // ========== EVENT STREAM ==========
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream order and stock events", description = "Server-Sent Events: 'order-status' when one of the user's orders changes status, 'stock' when a watched product's stock changes. Clients reload their state after reconnecting, missed events are not replayed")
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    @ApiResponse(responseCode = "503", description = "Too many open streams, retry later")
+    public ResponseEntity<SseEmitter> events(
+            @Parameter(hidden = true) Principal p,
+            @Parameter(description = "IDs of products to watch for stock changes") @RequestParam(required = false) List<Integer> products) {
+        SseEmitter emitter = eventService.subscribe(getLoggedInUserId(p), products == null ? List.of() : products);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
     // ========== PROFILE ENDPOINTS ==========
     /*@GetMapping("/profile")
     @Operation(summary = "Get user profile", description = "Retrieves the specified user's profile")
@@ -204,12 +235,13 @@ public class RestUserController {
     }*/
 
     @PutMapping("/profile")
-    @Operation(summary = "Update profile", description = "Updates the specified user's profile information")
+    @Operation(summary = "Update profile", description = "Updates the logged in user's profile information")
     @ApiResponse(responseCode = "200", description = "Profile updated successfully")
     @ApiResponse(responseCode = "400", description = "Invalid user ID or request")
     public ResponseEntity<?> updateProfile(
-            @Parameter(description = "User ID") @RequestParam Integer userId,
+            @Parameter(hidden = true) Principal p,
             @Parameter(description = "User details") @RequestBody UserDtls userDetails) {
+        Integer userId = getLoggedInUserId(p);
         logger.info("Received update profile request: userId={}", userId);
 
 
@@ -232,6 +264,46 @@ public class RestUserController {
     }
 
 
+    @PostMapping(value = "/profile/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload profile image", description = "Replaces the logged in user's profile image")
+    @ApiResponse(responseCode = "200", description = "Profile image updated successfully")
+    @ApiResponse(responseCode = "400", description = "Missing or unreadable image")
+    public ResponseEntity<?> uploadProfileImage(
+            @Parameter(hidden = true) Principal p,
+            @Parameter(description = "Profile image") @RequestParam("image") MultipartFile image) {
+        Integer userId = getLoggedInUserId(p);
+        logger.info("Received profile image upload: userId={}, size={}", userId, image.getSize());
+
+        if (image.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", "Image is required"));
+        }
+
+        try {
+            String imageName = imageService.saveImage(image, "profile_img");
+            UserDtls updatedUser = userService.updateProfileImage(userId, imageName);
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Profile image updated successfully",
+                    "user", updatedUser
+            ));
+        } catch (Exception e) {
+            logger.error("Error uploading profile image for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
+
+
+    // Token callers carry their id in the token, session callers are looked up once by email
+    private Integer getLoggedInUserId(Principal p) {
+        if (p instanceof Authentication authentication && authentication.getPrincipal() instanceof TokenUser tokenUser) {
+            return tokenUser.getId();
+        }
+        return userService.getUserByEmail(p.getName()).getId();
+    }
 
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<Map<String, Serializable>> handleJsonParseException(HttpMessageNotReadableException ex) {
@@ -0,0 +1,39 @@
+package com.ecom.controller;
+
+import java.security.Principal;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import com.ecom.model.UserDtls;
+import com.ecom.service.CartService;
+import com.ecom.service.UserService;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+@Controller
+public class UserNavController {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private CartService cartService;
+
+	// user part of the navbar for pages served from the page cache
+	@GetMapping("/user-nav")
+	public String userNav(Principal p, Model m, HttpServletResponse response) {
+		if (p != null) {
+			UserDtls userDtls = userService.getUserByEmail(p.getName());
+			m.addAttribute("user", userDtls);
+			m.addAttribute("countCart", cartService.getCountCart(userDtls.getId()));
+		}
+		response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+		return "base :: userNav";
+	}
+
+}
@@ -1,10 +1,14 @@
 package com.ecom.model;
 
+import com.ecom.util.Money;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -16,6 +20,7 @@ import lombok.Setter;
 @NoArgsConstructor
 @Getter
 @Setter
+@Table(indexes = @Index(name = "idx_cart_user_product", columnList = "user_id, product_id"))
 public class Cart {
 
 	@Id
@@ -31,9 +36,9 @@ public class Cart {
 	private Integer quantity;
 	
 	@Transient
-	private Double totalPrice;
+	private Money totalPrice;
 	
 	@Transient
-	private Double totalOrderPrice;
+	private Money totalOrderPrice;
 
 }
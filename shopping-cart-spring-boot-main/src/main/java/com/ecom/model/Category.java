@@ -1,9 +1,20 @@
 package com.ecom.model;
 
+import java.util.Map;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.ecom.util.ImageVariant;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -14,6 +25,10 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
+@Table(indexes = { @Index(name = "idx_category_active", columnList = "is_active"),
+		@Index(name = "idx_category_name", columnList = "name") })
 public class Category {
 
 	@Id
@@ -26,4 +41,9 @@ public class Category {
 
 	private Boolean isActive;
 
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	public Map<String, String> getImageUrls() {
+		return ImageVariant.urls("category_img", imageName);
+	}
+
 }
@@ -0,0 +1,64 @@
+package com.ecom.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(indexes = @Index(name = "idx_discount_campaign_status", columnList = "status, starts_at"))
+public class DiscountCampaign {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Integer id;
+
+	private String name;
+
+	// null for every product
+	private String category;
+
+	private int percentOff;
+
+	@Column(nullable = false)
+	private LocalDateTime startsAt;
+
+	@Column(nullable = false)
+	private LocalDateTime endsAt;
+
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	// a plain varchar, not the native enum Hibernate would otherwise expect on MySQL
+	@Enumerated(EnumType.STRING)
+	@JdbcTypeCode(SqlTypes.VARCHAR)
+	@Column(length = 20, nullable = false)
+	private Status status;
+
+	// products the campaign took over when it started
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	private Integer products;
+
+	public enum Status {
+		SCHEDULED, STARTING, ACTIVE, ENDED, CANCELLED
+	}
+
+}
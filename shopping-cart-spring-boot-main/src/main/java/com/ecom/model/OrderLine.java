@@ -0,0 +1,16 @@
+package com.ecom.model;
+
+import java.time.LocalDate;
+
+// Projection of ProductOrder for scanning order history without loading the entities
+public interface OrderLine {
+
+	Integer getUserId();
+
+	LocalDate getOrderDate();
+
+	Integer getProductId();
+
+	Integer getQuantity();
+
+}
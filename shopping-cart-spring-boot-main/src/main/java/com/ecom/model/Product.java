@@ -1,10 +1,22 @@
 package com.ecom.model;
 
+import java.util.Map;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.ecom.util.ImageVariant;
+import com.ecom.util.Money;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -15,6 +27,10 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
+@Table(indexes = { @Index(name = "idx_product_active_id", columnList = "is_active, id"),
+		@Index(name = "idx_product_category", columnList = "category") })
 public class Product {
 
 	@Id
@@ -29,7 +45,8 @@ public class Product {
 
 	private String category;
 
-	private Double price;
+	@Column(precision = 12, scale = 2)
+	private Money price;
 
 	private int stock;
 
@@ -37,8 +54,14 @@ public class Product {
 
 	private int discount;
 	
-	private Double discountPrice;
+	@Column(precision = 12, scale = 2)
+	private Money discountPrice;
 	
 	private Boolean isActive;
-	
+
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	public Map<String, String> getImageUrls() {
+		return ImageVariant.urls("product_img", image);
+	}
+
 }
@@ -3,13 +3,18 @@ package com.ecom.model;
 import java.time.LocalDate;
 import java.util.Date;
 
+import com.ecom.util.Money;
+
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -20,6 +25,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
+@Table(indexes = @Index(name = "uk_product_order_order_id", columnList = "order_id", unique = true))
 public class ProductOrder {
 
 	@Id
@@ -33,7 +39,8 @@ public class ProductOrder {
 	@ManyToOne
 	private Product product;
 
-	private Double price;
+	@Column(precision = 12, scale = 2)
+	private Money price;
 
 	private Integer quantity;
 
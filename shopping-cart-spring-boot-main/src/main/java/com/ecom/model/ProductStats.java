@@ -0,0 +1,24 @@
+package com.ecom.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+public class ProductStats {
+
+	@Id
+	private Integer productId;
+
+	private long views;
+
+	private long cartAdds;
+
+}
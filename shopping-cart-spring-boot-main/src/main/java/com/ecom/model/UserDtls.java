@@ -2,10 +2,14 @@ package com.ecom.model;
 
 import java.util.Date;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -16,6 +20,9 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
+@Table(indexes = { @Index(name = "idx_user_dtls_role_id", columnList = "role, id"),
+		@Index(name = "uk_user_dtls_email", columnList = "email", unique = true),
+		@Index(name = "idx_user_dtls_account_non_locked", columnList = "account_non_locked") })
 public class UserDtls {
 
 	@Id
@@ -36,6 +43,7 @@ public class UserDtls {
 
 	private String pincode;
 
+	@JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
 	private String password;
 
 	private String profileImage;
@@ -50,7 +58,5 @@ public class UserDtls {
 
 	private Date lockTime;
 
-	private String resetToken;
-
 	}
 
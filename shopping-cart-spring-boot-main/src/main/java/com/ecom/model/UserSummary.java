@@ -0,0 +1,28 @@
+package com.ecom.model;
+
+// Projection of UserDtls for listings, leaves out credentials and lock state
+public interface UserSummary {
+
+	Integer getId();
+
+	String getName();
+
+	String getEmail();
+
+	String getMobileNumber();
+
+	String getAddress();
+
+	String getCity();
+
+	String getState();
+
+	String getPincode();
+
+	String getProfileImage();
+
+	String getRole();
+
+	Boolean getIsEnable();
+
+}
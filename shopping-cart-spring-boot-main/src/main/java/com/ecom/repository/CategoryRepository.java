@@ -2,14 +2,20 @@ package com.ecom.repository;
 
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.ecom.model.Category;
 
+import jakarta.persistence.QueryHint;
+
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
 
 	public Boolean existsByName(String name);
 
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries") })
 	public List<Category> findByIsActiveTrue();
 
 }
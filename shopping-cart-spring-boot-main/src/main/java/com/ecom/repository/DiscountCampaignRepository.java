@@ -0,0 +1,21 @@
+package com.ecom.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.ecom.model.DiscountCampaign;
+
+public interface DiscountCampaignRepository extends JpaRepository<DiscountCampaign, Integer> {
+
+	public List<DiscountCampaign> findByStatusAndStartsAtLessThanEqualOrderByStartsAt(DiscountCampaign.Status status,
+			LocalDateTime time);
+
+	public List<DiscountCampaign> findByStatusAndEndsAtLessThanEqual(DiscountCampaign.Status status, LocalDateTime time);
+
+	public List<DiscountCampaign> findAllByOrderByStartsAtDesc();
+
+	public List<DiscountCampaign> findByStatus(DiscountCampaign.Status status);
+
+}
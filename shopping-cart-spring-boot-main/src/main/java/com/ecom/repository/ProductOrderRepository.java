@@ -1,15 +1,45 @@
 package com.ecom.repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.ecom.model.OrderLine;
 import com.ecom.model.ProductOrder;
 
+import jakarta.persistence.QueryHint;
+
 public interface ProductOrderRepository extends JpaRepository<ProductOrder, Integer> {
 
 	List<ProductOrder> findByUserId(Integer userId);
 
 	ProductOrder findByOrderId(String orderId);
 
+	@Query("select max(o.id) from ProductOrder o")
+	Integer findMaxId();
+
+	public static final String ORDER_LINE = "select o.user.id as userId, o.orderDate as orderDate, "
+			+ "o.product.id as productId, o.quantity as quantity from ProductOrder o ";
+
+	// the streams must be consumed inside a transaction and closed
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query(ORDER_LINE + "where o.id <= :maxId order by o.user.id, o.orderDate")
+	Stream<OrderLine> streamOrderLines(@Param("maxId") Integer maxId);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query(ORDER_LINE + "where o.id <= :maxId and o.orderDate >= :since and o.status <> :excludedStatus")
+	Stream<OrderLine> streamOrderLinesSince(@Param("maxId") Integer maxId, @Param("since") LocalDate since,
+			@Param("excludedStatus") String excludedStatus);
+
+	@Query("select o.product.id from ProductOrder o "
+			+ "where o.user.id = :userId and o.orderDate = :orderDate and o.id < :beforeId")
+	List<Integer> findProductIdsOrderedBefore(@Param("userId") Integer userId,
+			@Param("orderDate") LocalDate orderDate, @Param("beforeId") Integer beforeId);
+
 }
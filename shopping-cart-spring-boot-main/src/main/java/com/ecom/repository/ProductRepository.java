@@ -1,19 +1,37 @@
 package com.ecom.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.ecom.model.Product;
 
+import jakarta.persistence.QueryHint;
+
 public interface ProductRepository extends JpaRepository<Product, Integer> {
 
+	// cached, invalidated by Hibernate whenever a product is written (see SecondLevelCacheConfig)
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries") })
 	List<Product> findByIsActiveTrue();
 
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries") })
 	Page<Product> findByIsActiveTrue(Pageable pageable);
 
+	long countByIsActiveTrue();
+
+	long countByIsActiveTrueAndCategory(String category);
+
+	List<Product> findByIsActiveTrueAndIdNotIn(Collection<Integer> ids, Pageable pageable);
+
+	List<Product> findByIsActiveTrueAndCategoryAndIdNotIn(String category, Collection<Integer> ids, Pageable pageable);
+
 	List<Product> findByCategory(String category);
 
 	List<Product> findByTitleContainingIgnoreCaseOrCategoryContainingIgnoreCase(String ch, String ch2);
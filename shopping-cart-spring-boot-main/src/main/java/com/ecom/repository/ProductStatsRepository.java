@@ -0,0 +1,9 @@
+package com.ecom.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.ecom.model.ProductStats;
+
+public interface ProductStatsRepository extends JpaRepository<ProductStats, Integer> {
+
+}
@@ -2,17 +2,40 @@ package com.ecom.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ecom.model.UserDtls;
+import com.ecom.model.UserSummary;
 
 public interface UserRepository extends JpaRepository<UserDtls, Integer> {
 
 	public UserDtls findByEmail(String email);
 
-	public List<UserDtls> findByRole(String role);
+	public static final String USER_SUMMARY = "select u.id as id, u.name as name, u.email as email, "
+			+ "u.mobileNumber as mobileNumber, u.address as address, u.city as city, u.state as state, "
+			+ "u.pincode as pincode, u.profileImage as profileImage, u.role as role, u.isEnable as isEnable "
+			+ "from UserDtls u ";
 
-	public UserDtls findByResetToken(String token);
+	@Query(USER_SUMMARY + "where u.role = :role and u.id > :afterId order by u.id")
+	public List<UserSummary> findUserSummaries(@Param("role") String role, @Param("afterId") Integer afterId,
+			Pageable pageable);
+
+	@Query(USER_SUMMARY + "where u.role = :role and u.id > :afterId "
+			+ "and (u.email like :prefix escape '!' or u.name like :prefix escape '!') order by u.id")
+	public List<UserSummary> searchUserSummaries(@Param("role") String role, @Param("afterId") Integer afterId,
+			@Param("prefix") String prefix, Pageable pageable);
 
 	public Boolean existsByEmail(String email);
+
+	public List<UserDtls> findByAccountNonLockedFalse();
+
+	@Transactional
+	@Modifying
+	@Query("update UserDtls u set u.accountNonLocked = true, u.failedAttempt = 0, u.lockTime = null where u.id = :id")
+	public int unlockAccount(@Param("id") Integer id);
 }
@@ -0,0 +1,19 @@
+package com.ecom.service;
+
+import java.util.List;
+
+import com.ecom.model.DiscountCampaign;
+
+public interface CampaignService {
+
+	public DiscountCampaign saveCampaign(DiscountCampaign campaign);
+
+	public List<DiscountCampaign> getAllCampaigns();
+
+	public DiscountCampaign getCampaignById(Integer id);
+
+	public DiscountCampaign cancelCampaign(Integer id);
+
+	public void runDueCampaigns();
+
+}
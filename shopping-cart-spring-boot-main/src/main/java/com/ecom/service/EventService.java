@@ -0,0 +1,20 @@
+package com.ecom.service;
+
+import java.util.Collection;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.ecom.model.Product;
+import com.ecom.model.ProductOrder;
+
+public interface EventService {
+
+	public SseEmitter subscribe(Integer userId, Collection<Integer> productIds);
+
+	public void publishOrderStatus(ProductOrder order);
+
+	public void publishStock(Product product);
+
+	public int getSubscriberCount();
+
+}
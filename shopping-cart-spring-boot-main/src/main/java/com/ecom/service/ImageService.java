@@ -0,0 +1,15 @@
+package com.ecom.service;
+
+import java.io.IOException;
+
+import org.springframework.web.multipart.MultipartFile;
+
+public interface ImageService {
+
+	public String saveImage(MultipartFile file, String folder) throws IOException;
+
+	public void generateVariants(String folder, String imageName);
+
+	public String getImageUrl(String folder, String imageName, String variant);
+
+}
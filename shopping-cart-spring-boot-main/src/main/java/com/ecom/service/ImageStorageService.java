@@ -0,0 +1,19 @@
+package com.ecom.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import org.springframework.web.multipart.MultipartFile;
+
+public interface ImageStorageService {
+
+	public String store(MultipartFile file, String folder) throws IOException;
+
+	public InputStream openOriginal(String folder, String imageName) throws IOException;
+
+	public Path getFolder(String folder) throws IOException;
+
+	public Path getRoot();
+
+}
@@ -0,0 +1,9 @@
+package com.ecom.service;
+
+public interface LoginAttemptService {
+
+	public boolean loginFailed(String email);
+
+	public void loginSucceeded(String email);
+
+}
@@ -0,0 +1,25 @@
+package com.ecom.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+
+import com.ecom.model.Product;
+import com.ecom.model.ProductOrder;
+
+public interface PopularityService {
+
+	public void recordView(Integer productId);
+
+	public void recordOrder(List<ProductOrder> orders);
+
+	public List<Product> getBestSellers(List<Product> products, int limit);
+
+	public Map<String, List<Product>> getTrendingByCategory(List<Product> products, int categories, int limit);
+
+	public Page<Product> getPopularProductPagination(Integer pageNo, Integer pageSize, String category);
+
+	public long getPageTtl();
+
+}
@@ -0,0 +1,19 @@
+package com.ecom.service;
+
+import org.springframework.data.domain.Page;
+
+import com.ecom.model.ProductStats;
+
+public interface ProductStatsService {
+
+	public void recordView(Integer productId);
+
+	public void recordCartAdd(Integer productId);
+
+	public int flush();
+
+	public ProductStats getStats(Integer productId);
+
+	public Page<ProductStats> getStatsPagination(Integer pageNo, Integer pageSize);
+
+}
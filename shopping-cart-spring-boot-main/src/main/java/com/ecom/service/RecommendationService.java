@@ -0,0 +1,16 @@
+package com.ecom.service;
+
+import java.util.List;
+
+import com.ecom.model.Product;
+import com.ecom.model.ProductOrder;
+
+public interface RecommendationService {
+
+	public List<Product> getRelatedProducts(Integer productId);
+
+	public void recordOrder(List<ProductOrder> orders);
+
+	public void rebuild();
+
+}
@@ -2,9 +2,11 @@ package com.ecom.service;
 
 import java.util.List;
 
+import org.springframework.data.domain.Window;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.ecom.model.UserDtls;
+import com.ecom.model.UserSummary;
 
 public interface UserService {
 
@@ -12,19 +14,17 @@ public interface UserService {
 
 	public UserDtls getUserByEmail(String email);
 
-	public List<UserDtls> getUsers(String role);
+	public Window<UserSummary> getUsers(String role, String search, Integer afterId, int size);
 
 	public Boolean updateAccountStatus(Integer id, Boolean status);
 
-	public void increaseFailedAttempt(UserDtls user);
-
 	public void userAccountLock(UserDtls user);
 
-	public boolean unlockAccountTimeExpired(UserDtls user);
-
 	public void resetAttempt(int userId);
 
-	public void updateUserResetToken(String email, String resetToken);
+	public List<UserDtls> getLockedUsers();
+
+	public String generateResetToken(UserDtls user);
 
 	public UserDtls getUserByToken(String token);
 
@@ -32,6 +32,8 @@ public interface UserService {
 
 	public UserDtls updateUserProfile(UserDtls user, MultipartFile img);
 
+	public UserDtls updateProfileImage(Integer userId, String imageName);
+
 	public UserDtls saveAdmin(UserDtls user);
 
 	public Boolean existsEmail(String email);
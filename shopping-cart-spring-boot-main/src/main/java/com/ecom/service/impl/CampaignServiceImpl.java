@@ -0,0 +1,225 @@
+package com.ecom.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ecom.model.DiscountCampaign;
+import com.ecom.model.DiscountCampaign.Status;
+import com.ecom.model.Product;
+import com.ecom.repository.DiscountCampaignRepository;
+import com.ecom.service.CampaignService;
+import com.ecom.util.CatalogVersion;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Discount campaigns ("20% off Laptop from T1 to T2") are started and stopped by
+ * a scheduler and applied with set-based updates over ranges of product ids, so
+ * every statement locks a bounded number of rows and commits on its own. The
+ * catalog caches are invalidated once when a campaign starts or stops, instead
+ * of once per product.
+ *
+ * A transition can fail or be cut short after some ranges committed. A start is
+ * claimed as STARTING and only becomes ACTIVE once every range is done, so the
+ * scheduler resumes campaigns left STARTING; a campaign that ended or was
+ * cancelled while it still owns products is reverted again. Both statements are
+ * idempotent, and the caches are invalidated whether or not the transition
+ * finished.
+ *
+ * A product belongs to at most one campaign at a time and keeps its own discount
+ * in base_discount, which is restored when the campaign ends; a campaign leaves
+ * alone products that are already discounted as much. A discount edited by hand
+ * while a campaign runs is also replaced by base_discount at the end.
+ */
+@Service
+public class CampaignServiceImpl implements CampaignService {
+
+	private static final Logger logger = LoggerFactory.getLogger(CampaignServiceImpl.class);
+
+	// rounds half away from zero to the cent like Money.percentOff; MySQL assigns left to
+	// right, so base_discount is copied before discount is overwritten
+	private static final String APPLY = "update product set campaign_id = ?, base_discount = discount, discount = ?, "
+			+ "discount_price = round(price * (100 - ?) / 100, 2) "
+			+ "where id > ? and id <= ? and campaign_id is null and discount < ?";
+
+	private static final String REVERT = "update product set discount = base_discount, "
+			+ "discount_price = round(price * (100 - base_discount) / 100, 2), campaign_id = null, base_discount = null "
+			+ "where id > ? and id <= ? and campaign_id = ?";
+
+	private static final String CLAIM = "update discount_campaign set status = ? where id = ? and status = ?";
+
+	// campaigns that stopped before all of their products were given back
+	private static final String UNFINISHED_STOPS = "select c.id from discount_campaign c where c.status in (?, ?) "
+			+ "and exists (select 1 from product p where p.campaign_id = c.id)";
+
+	@Autowired
+	private DiscountCampaignRepository campaignRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private CatalogVersion catalogVersion;
+
+	// product ids covered by one statement
+	@Value("${app.campaigns.batch-size:500}")
+	private int batchSize;
+
+	@Override
+	public DiscountCampaign saveCampaign(DiscountCampaign campaign) {
+		campaign.setId(null);
+		campaign.setStatus(Status.SCHEDULED);
+		campaign.setProducts(null);
+		DiscountCampaign saveCampaign = campaignRepository.save(campaign);
+		if (!saveCampaign.getStartsAt().isAfter(LocalDateTime.now())) {
+			runDueCampaigns();
+			return getCampaignById(saveCampaign.getId());
+		}
+		return saveCampaign;
+	}
+
+	@Override
+	public List<DiscountCampaign> getAllCampaigns() {
+		return campaignRepository.findAllByOrderByStartsAtDesc();
+	}
+
+	@Override
+	public DiscountCampaign getCampaignById(Integer id) {
+		return campaignRepository.findById(id).orElse(null);
+	}
+
+	@Override
+	public DiscountCampaign cancelCampaign(Integer id) {
+		DiscountCampaign campaign = getCampaignById(id);
+		if (campaign == null) {
+			return null;
+		}
+		if (!claim(campaign, Status.SCHEDULED, Status.CANCELLED)) {
+			if (claim(campaign, Status.STARTING, Status.CANCELLED)) {
+				revert(campaign.getId());
+			} else {
+				stop(campaign, Status.CANCELLED);
+			}
+		}
+		return getCampaignById(id);
+	}
+
+	// campaigns that end are stopped first, so their products are free for the ones that start
+	@Override
+	@Scheduled(fixedDelayString = "${app.campaigns.poll-interval:60000}")
+	public void runDueCampaigns() {
+		LocalDateTime now = LocalDateTime.now();
+		for (DiscountCampaign campaign : campaignRepository.findByStatusAndEndsAtLessThanEqual(Status.ACTIVE, now)) {
+			stop(campaign, Status.ENDED);
+		}
+		for (Integer id : jdbcTemplate.queryForList(UNFINISHED_STOPS, Integer.class, Status.ENDED.name(),
+				Status.CANCELLED.name())) {
+			logger.info("Resuming the stop of campaign {}", id);
+			revert(id);
+		}
+		for (DiscountCampaign campaign : campaignRepository.findByStatus(Status.STARTING)) {
+			logger.info("Resuming the start of campaign {}", campaign.getId());
+			apply(campaign);
+		}
+		for (DiscountCampaign campaign : campaignRepository
+				.findByStatusAndStartsAtLessThanEqualOrderByStartsAt(Status.SCHEDULED, now)) {
+			if (campaign.getEndsAt().isAfter(now)) {
+				start(campaign);
+			} else {
+				// its whole window passed while the application was down
+				claim(campaign, Status.SCHEDULED, Status.ENDED);
+			}
+		}
+	}
+
+	private void start(DiscountCampaign campaign) {
+		if (claim(campaign, Status.SCHEDULED, Status.STARTING)) {
+			apply(campaign);
+		}
+	}
+
+	private void stop(DiscountCampaign campaign, Status status) {
+		if (claim(campaign, Status.ACTIVE, status)) {
+			revert(campaign.getId());
+		}
+	}
+
+	// runs again over the ranges already done when resumed, where the campaign_id check makes it a no-op
+	private void apply(DiscountCampaign campaign) {
+		long start = System.currentTimeMillis();
+		try {
+			for (long[] range : idRanges()) {
+				List<Object> args = new ArrayList<>(List.of(campaign.getId(), campaign.getPercentOff(),
+						campaign.getPercentOff(), range[0], range[1], campaign.getPercentOff()));
+				String sql = APPLY;
+				if (campaign.getCategory() != null) {
+					sql += " and category = ?";
+					args.add(campaign.getCategory());
+				}
+				jdbcTemplate.update(sql, args.toArray());
+			}
+			Integer products = jdbcTemplate.queryForObject("select count(*) from product where campaign_id = ?",
+					Integer.class, campaign.getId());
+			// a campaign cancelled meanwhile stays cancelled, the scheduler gives its products back
+			jdbcTemplate.update("update discount_campaign set status = ?, products = ? where id = ? and status = ?",
+					Status.ACTIVE.name(), products, campaign.getId(), Status.STARTING.name());
+			logger.info("Started campaign {} ({}% off {}): {} products in {} ms", campaign.getId(),
+					campaign.getPercentOff(), campaign.getCategory() == null ? "everything" : campaign.getCategory(),
+					products, System.currentTimeMillis() - start);
+		} finally {
+			invalidateCatalog();
+		}
+	}
+
+	private void revert(Integer campaignId) {
+		long start = System.currentTimeMillis();
+		int updated = 0;
+		try {
+			for (long[] range : idRanges()) {
+				updated += jdbcTemplate.update(REVERT, range[0], range[1], campaignId);
+			}
+			logger.info("Stopped campaign {}: {} products restored in {} ms", campaignId, updated,
+					System.currentTimeMillis() - start);
+		} finally {
+			invalidateCatalog();
+		}
+	}
+
+	// only the instance whose update matched the expected status runs the transition
+	private boolean claim(DiscountCampaign campaign, Status from, Status to) {
+		return jdbcTemplate.update(CLAIM, to.name(), campaign.getId(), from.name()) == 1;
+	}
+
+	// (from, to] ranges of batchSize ids up to the highest product id
+	private List<long[]> idRanges() {
+		Long maxId = jdbcTemplate.queryForObject("select max(id) from product", Long.class);
+		List<long[]> ranges = new ArrayList<>();
+		for (long from = 0; maxId != null && from < maxId; from += batchSize) {
+			ranges.add(new long[] { from, Math.min(from + batchSize, maxId) });
+		}
+		return ranges;
+	}
+
+	// the updates bypass Hibernate, so drop what it cached about products and catalog queries;
+	// the other nodes do the same when they see the catalog version move
+	private void invalidateCatalog() {
+		Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+		cache.evictEntityData(Product.class);
+		cache.evictQueryRegion("catalog-queries");
+		catalogVersion.increment();
+	}
+
+}
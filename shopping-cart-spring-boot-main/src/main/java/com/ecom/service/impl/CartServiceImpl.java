@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ObjectUtils;
 
 import com.ecom.model.Cart;
@@ -14,6 +15,8 @@ import com.ecom.repository.CartRepository;
 import com.ecom.repository.ProductRepository;
 import com.ecom.repository.UserRepository;
 import com.ecom.service.CartService;
+import com.ecom.service.ProductStatsService;
+import com.ecom.util.Money;
 
 @Service
 public class CartServiceImpl implements CartService {
@@ -27,6 +30,9 @@ public class CartServiceImpl implements CartService {
 	@Autowired
 	private ProductRepository productRepository;
 
+	@Autowired
+	private ProductStatsService productStatsService;
+
 	@Override
 	public Cart saveCart(Integer productId, Integer userId) {
 
@@ -42,28 +48,31 @@ public class CartServiceImpl implements CartService {
 			cart.setProduct(product);
 			cart.setUser(userDtls);
 			cart.setQuantity(1);
-			cart.setTotalPrice(1 * product.getDiscountPrice());
+			cart.setTotalPrice(product.getDiscountPrice());
 		} else {
 			cart = cartStatus;
 			cart.setQuantity(cart.getQuantity() + 1);
-			cart.setTotalPrice(cart.getQuantity() * cart.getProduct().getDiscountPrice());
+			cart.setTotalPrice(cart.getProduct().getDiscountPrice().times(cart.getQuantity()));
 		}
 		Cart saveCart = cartRepository.save(cart);
+		productStatsService.recordCartAdd(productId);
 
 		return saveCart;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<Cart> getCartsByUser(Integer userId) {
 		List<Cart> carts = cartRepository.findByUserId(userId);
 
-		Double totalOrderPrice = 0.0;
+		// summed in cents; only the values kept on the carts are wrapped
+		long totalOrderPrice = 0;
 		List<Cart> updateCarts = new ArrayList<>();
 		for (Cart c : carts) {
-			Double totalPrice = (c.getProduct().getDiscountPrice() * c.getQuantity());
-			c.setTotalPrice(totalPrice);
+			long totalPrice = Money.times(c.getProduct().getDiscountPrice().cents(), c.getQuantity());
+			c.setTotalPrice(Money.ofCents(totalPrice));
 			totalOrderPrice = totalOrderPrice + totalPrice;
-			c.setTotalOrderPrice(totalOrderPrice);
+			c.setTotalOrderPrice(Money.ofCents(totalOrderPrice));
 			updateCarts.add(c);
 		}
 
@@ -71,6 +80,7 @@ public class CartServiceImpl implements CartService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Integer getCountCart(Integer userId) {
 		Integer countByUserId = cartRepository.countByUserId(userId);
 		return countByUserId;
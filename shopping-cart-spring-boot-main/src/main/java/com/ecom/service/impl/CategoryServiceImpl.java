@@ -8,10 +8,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ecom.model.Category;
 import com.ecom.repository.CategoryRepository;
 import com.ecom.service.CategoryService;
+import com.ecom.util.CatalogVersion;
 
 @Service
 public class CategoryServiceImpl implements CategoryService {
@@ -19,17 +21,24 @@ public class CategoryServiceImpl implements CategoryService {
 	@Autowired
 	private CategoryRepository categoryRepository;
 
+	@Autowired
+	private CatalogVersion catalogVersion;
+
 	@Override
 	public Category saveCategory(Category category) {
-		return categoryRepository.save(category);
+		Category saveCategory = categoryRepository.save(category);
+		catalogVersion.increment();
+		return saveCategory;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<Category> getAllCategory() {
 		return categoryRepository.findAll();
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Boolean existCategory(String name) {
 		return categoryRepository.existsByName(name);
 	}
@@ -39,22 +48,26 @@ public class CategoryServiceImpl implements CategoryService {
 		Optional<Category> category = categoryRepository.findById(id);
 		if (category.isPresent()) {
 			categoryRepository.delete(category.get());
+			catalogVersion.increment();
 			return true;
 		}
 		return false;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Category getCategoryById(int id) {
 		return categoryRepository.findById(id).orElse(null);
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<Category> getAllActiveCategory() {
 		return categoryRepository.findByIsActiveTrue();
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Page<Category> getAllCategorPagination(Integer pageNo, Integer pageSize) {
 		Pageable pageable = PageRequest.of(pageNo, pageSize);
 		return categoryRepository.findAll(pageable);
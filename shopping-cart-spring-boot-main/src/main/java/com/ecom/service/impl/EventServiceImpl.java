@@ -0,0 +1,329 @@
+package com.ecom.service.impl;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.ecom.model.Product;
+import com.ecom.model.ProductOrder;
+import com.ecom.service.EventService;
+import com.ecom.util.MetricsRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes order status transitions to the order's owner and stock levels to the
+ * clients watching a product, as Server-Sent Events. A stream is an async request,
+ * so an idle client holds a socket and a small queue but no thread.
+ *
+ * Publishing never writes to a socket: an event is serialized once and offered to
+ * the bounded queue of every interested client, and a client with queued events
+ * gets one task on the sender pool that writes them out. A client whose queue
+ * fills up cannot keep up and is disconnected; EventSource reconnects by itself
+ * and the client reloads what it missed. A heartbeat comment keeps proxies from
+ * closing idle streams and finds the clients that are gone.
+ */
+@Service
+public class EventServiceImpl implements EventService {
+
+	private static final Logger logger = LoggerFactory.getLogger(EventServiceImpl.class);
+
+	// sent first so headers go out at once, and tells EventSource how soon to reconnect
+	private static final Set<DataWithMediaType> CONNECTED = SseEmitter.event().comment("connected")
+			.reconnectTime(5000).build();
+
+	private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("").build();
+
+	@Autowired
+	@Qualifier("eventTaskExecutor")
+	private TaskExecutor eventTaskExecutor;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MetricsRegistry metricsRegistry;
+
+	@Value("${app.events.timeout:1800000}")
+	private long timeout;
+
+	@Value("${app.events.queue-size:32}")
+	private int queueSize;
+
+	@Value("${app.events.max-subscribers:10000}")
+	private int maxSubscribers;
+
+	@Value("${app.events.max-per-user:4}")
+	private int maxPerUser;
+
+	@Value("${app.events.max-watched:50}")
+	private int maxWatched;
+
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+	private final Map<Integer, Set<Subscriber>> byUser = new ConcurrentHashMap<>();
+
+	private final Map<Integer, Set<Subscriber>> byProduct = new ConcurrentHashMap<>();
+
+	// last stock level sent for each watched product, a save that leaves it unchanged sends nothing
+	private final Map<Integer, Integer> lastStock = new ConcurrentHashMap<>();
+
+	private final AtomicLong subscriberIds = new AtomicLong();
+
+	private final AtomicLong eventIds = new AtomicLong();
+
+	private final LongAdder dropped = new LongAdder();
+
+	@PostConstruct
+	public void bindMetrics() {
+		metricsRegistry.gauge("sse_subscribers", "Open event streams", subscribers::size);
+		metricsRegistry.counter("sse_slow_subscribers_dropped_total", "Event streams closed because the client fell behind",
+				dropped::sum);
+	}
+
+	@Override
+	public SseEmitter subscribe(Integer userId, Collection<Integer> productIds) {
+		if (subscribers.size() >= maxSubscribers) {
+			return null;
+		}
+		int[] watched = productIds.stream().filter(Objects::nonNull).mapToInt(Integer::intValue).filter(id -> id > 0)
+				.distinct().limit(maxWatched).toArray();
+		SseEmitter emitter = new SseEmitter(timeout);
+		Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), userId, watched, emitter);
+
+		emitter.onCompletion(() -> unregister(subscriber));
+		emitter.onError(e -> unregister(subscriber));
+		emitter.onTimeout(emitter::complete);
+
+		subscribers.add(subscriber);
+		Set<Subscriber> own = add(byUser, userId, subscriber);
+		for (int productId : watched) {
+			add(byProduct, productId, subscriber);
+		}
+		// a user reloading pages leaves streams behind until the next heartbeat; the newest ones win
+		if (own.size() > maxPerUser) {
+			own.stream().min(Comparator.comparingLong(Subscriber::id)).ifPresent(Subscriber::disconnect);
+		}
+		subscriber.offer(CONNECTED);
+		return emitter;
+	}
+
+	@Override
+	public void publishOrderStatus(ProductOrder order) {
+		if (order == null || order.getUser() == null || !byUser.containsKey(order.getUser().getId())) {
+			return;
+		}
+		Map<String, Object> data = new LinkedHashMap<>();
+		data.put("id", order.getId());
+		data.put("orderId", order.getOrderId());
+		data.put("productId", order.getProduct() == null ? null : order.getProduct().getId());
+		data.put("status", order.getStatus());
+		Integer userId = order.getUser().getId();
+		afterCommit(() -> publish(byUser.get(userId), "order-status", data));
+	}
+
+	@Override
+	public void publishStock(Product product) {
+		if (product == null || product.getId() == null || !byProduct.containsKey(product.getId())) {
+			return;
+		}
+		Integer productId = product.getId();
+		Integer stock = product.getStock();
+		afterCommit(() -> {
+			if (!Objects.equals(lastStock.put(productId, stock), stock)) {
+				Map<String, Object> data = new LinkedHashMap<>();
+				data.put("productId", productId);
+				data.put("stock", stock);
+				publish(byProduct.get(productId), "stock", data);
+			}
+		});
+	}
+
+	@Override
+	public int getSubscriberCount() {
+		return subscribers.size();
+	}
+
+	@Scheduled(fixedDelayString = "${app.events.heartbeat:15000}")
+	public void heartbeat() {
+		for (Subscriber subscriber : subscribers) {
+			subscriber.offer(HEARTBEAT);
+		}
+	}
+
+	@PreDestroy
+	public void close() {
+		subscribers.forEach(Subscriber::disconnect);
+	}
+
+	private void publish(Set<Subscriber> targets, String name, Object data) {
+		if (targets == null || targets.isEmpty()) {
+			return;
+		}
+		Set<DataWithMediaType> event;
+		try {
+			event = SseEmitter.event().id(Long.toString(eventIds.incrementAndGet())).name(name)
+					.data(objectMapper.writeValueAsString(data)).build();
+		} catch (JsonProcessingException e) {
+			logger.warn("Could not serialize {} event: {}", name, e.getMessage());
+			return;
+		}
+		for (Subscriber subscriber : targets) {
+			subscriber.offer(event);
+		}
+	}
+
+	// a status that is rolled back must not reach the client
+	private void afterCommit(Runnable publish) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					publish.run();
+				}
+			});
+		} else {
+			publish.run();
+		}
+	}
+
+	private static Set<Subscriber> add(Map<Integer, Set<Subscriber>> index, Integer key, Subscriber subscriber) {
+		return index.compute(key, (k, set) -> {
+			Set<Subscriber> updated = set == null ? ConcurrentHashMap.newKeySet() : set;
+			updated.add(subscriber);
+			return updated;
+		});
+	}
+
+	private static void remove(Map<Integer, Set<Subscriber>> index, Integer key, Subscriber subscriber) {
+		index.computeIfPresent(key, (k, set) -> {
+			set.remove(subscriber);
+			return set.isEmpty() ? null : set;
+		});
+	}
+
+	private void unregister(Subscriber subscriber) {
+		if (subscribers.remove(subscriber)) {
+			remove(byUser, subscriber.userId, subscriber);
+			for (int productId : subscriber.productIds) {
+				remove(byProduct, productId, subscriber);
+				if (!byProduct.containsKey(productId)) {
+					lastStock.remove(productId);
+				}
+			}
+		}
+	}
+
+	private final class Subscriber {
+
+		private final long id;
+
+		private final Integer userId;
+
+		private final int[] productIds;
+
+		private final SseEmitter emitter;
+
+		private final BlockingQueue<Set<DataWithMediaType>> queue;
+
+		// at most one send task per client, so its events stay in order
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		private volatile boolean disconnected;
+
+		private Subscriber(long id, Integer userId, int[] productIds, SseEmitter emitter) {
+			this.id = id;
+			this.userId = userId;
+			this.productIds = productIds;
+			this.emitter = emitter;
+			this.queue = new ArrayBlockingQueue<>(queueSize);
+		}
+
+		private long id() {
+			return id;
+		}
+
+		private void offer(Set<DataWithMediaType> event) {
+			if (disconnected) {
+				return;
+			}
+			if (!queue.offer(event)) {
+				logger.debug("Event stream {} of user {} fell behind, closing it", id, userId);
+				dropped.increment();
+				disconnected = true;
+			}
+			schedule();
+		}
+
+		// the emitter is only ever written and completed by the send task, publishers never wait on a client
+		private void disconnect() {
+			disconnected = true;
+			schedule();
+		}
+
+		private void schedule() {
+			if (scheduled.compareAndSet(false, true)) {
+				try {
+					eventTaskExecutor.execute(this::send);
+				} catch (TaskRejectedException e) {
+					// shutting down; the container times the request out
+					disconnected = true;
+					unregister(this);
+				}
+			}
+		}
+
+		private void send() {
+			try {
+				Set<DataWithMediaType> event;
+				while (!disconnected && (event = queue.poll()) != null) {
+					emitter.send(event);
+				}
+				if (disconnected) {
+					unregister(this);
+					queue.clear();
+					emitter.complete();
+					return;
+				}
+			} catch (IOException | IllegalStateException e) {
+				// the client is gone, the container reports it through onError as well
+				disconnected = true;
+				unregister(this);
+				queue.clear();
+				return;
+			}
+			scheduled.set(false);
+			if (!queue.isEmpty() || disconnected) {
+				schedule();
+			}
+		}
+	}
+
+}
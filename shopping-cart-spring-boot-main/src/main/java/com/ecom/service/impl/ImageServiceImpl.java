@@ -0,0 +1,240 @@
+package com.ecom.service.impl;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ObjectUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.ecom.service.ImageService;
+import com.ecom.service.ImageStorageService;
+import com.ecom.util.ImageVariant;
+
+@Service
+public class ImageServiceImpl implements ImageService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ImageServiceImpl.class);
+
+	private static final float QUALITY = 0.8f;
+
+	// a few bytes of PNG can declare a huge canvas, so the size is checked before anything is decoded
+	private static final long MAX_PIXELS = 40_000_000L;
+
+	@Autowired
+	private ImageStorageService imageStorageService;
+
+	@Autowired
+	@Qualifier("imageTaskExecutor")
+	private TaskExecutor imageTaskExecutor;
+
+	private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+	private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+	@Override
+	public String saveImage(MultipartFile file, String folder) throws IOException {
+		String imageName = imageStorageService.store(file, folder);
+		if (imageName != null) {
+			failed.remove(folder + "/" + imageName);
+			generateVariants(folder, imageName);
+		}
+		return imageName;
+	}
+
+	@Override
+	public void generateVariants(String folder, String imageName) {
+		String key = folder + "/" + imageName;
+		if (ObjectUtils.isEmpty(imageName) || failed.contains(key) || !pending.add(key)) {
+			return;
+		}
+
+		try {
+			imageTaskExecutor.execute(() -> {
+				try {
+					writeVariants(folder, imageName);
+				} catch (Exception e) {
+					failed.add(key);
+					logger.warn("Unable to generate variants for {}: {}", key, e.getMessage());
+				} finally {
+					pending.remove(key);
+				}
+			});
+		} catch (TaskRejectedException e) {
+			pending.remove(key);
+			logger.debug("Image queue full, skipping {}", key);
+		}
+	}
+
+	@Override
+	public String getImageUrl(String folder, String imageName, String variant) {
+		ImageVariant imageVariant = ImageVariant.fromName(variant);
+		if (imageVariant == null) {
+			return ImageVariant.originalUrl(folder, imageName);
+		}
+		return imageVariant.url(folder, imageName);
+	}
+
+	private void writeVariants(String folder, String imageName) throws IOException {
+		Path dir = imageStorageService.getFolder(folder);
+		if (isGenerated(dir, imageName)) {
+			return;
+		}
+
+		BufferedImage source;
+		try (InputStream in = imageStorageService.openOriginal(folder, imageName)) {
+			source = read(in);
+		}
+
+		for (ImageVariant variant : ImageVariant.values()) {
+			BufferedImage resized = resize(source, variant.getWidth());
+			Path variantDir = dir.resolve(variant.getName());
+			Files.createDirectories(variantDir);
+
+			write(resized, "jpg", variantDir.resolve(variant.fileName(imageName, "jpg")));
+			if ("webp".equals(ImageVariant.FORMAT)) {
+				write(resized, "webp", variantDir.resolve(variant.fileName(imageName, "webp")));
+			}
+		}
+	}
+
+	// decodes every n-th pixel, with n chosen so the image is still at least as wide as the largest variant
+	private BufferedImage read(InputStream in) throws IOException {
+		try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+			Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+			if (readers == null || !readers.hasNext()) {
+				throw new IOException("unsupported image format");
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(input, true, true);
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+				if ((long) width * height > MAX_PIXELS) {
+					throw new IOException("image of " + width + "x" + height + " pixels is too large");
+				}
+				int maxWidth = 0;
+				for (ImageVariant variant : ImageVariant.values()) {
+					maxWidth = Math.max(maxWidth, variant.getWidth());
+				}
+				ImageReadParam param = reader.getDefaultReadParam();
+				int step = Math.max(1, width / maxWidth);
+				param.setSourceSubsampling(step, step, 0, 0);
+				return reader.read(0, param);
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	// content addressed names never change, so an identical upload reuses existing variants
+	private boolean isGenerated(Path dir, String imageName) {
+		for (ImageVariant variant : ImageVariant.values()) {
+			if (Files.notExists(dir.resolve(variant.getName()).resolve(variant.fileName(imageName, ImageVariant.FORMAT)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// halves the image until it is close to the target width, which keeps bilinear
+	// scaling sharp without the cost of area averaging
+	private BufferedImage resize(BufferedImage source, int maxWidth) {
+		int width = source.getWidth();
+		int height = source.getHeight();
+		int targetWidth = Math.min(width, maxWidth);
+		int targetHeight = Math.max(1, (int) Math.round(height * (targetWidth / (double) width)));
+
+		BufferedImage current = toRgb(source);
+		while (width / 2 >= targetWidth) {
+			width /= 2;
+			height = Math.max(1, height / 2);
+			current = scale(current, width, height);
+		}
+		if (width != targetWidth) {
+			current = scale(current, targetWidth, targetHeight);
+		}
+		return current;
+	}
+
+	private BufferedImage scale(BufferedImage source, int width, int height) {
+		BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = scaled.createGraphics();
+		try {
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			g.drawImage(source, 0, 0, width, height, null);
+		} finally {
+			g.dispose();
+		}
+		return scaled;
+	}
+
+	// JPEG has no alpha channel, flatten transparent PNGs onto white
+	private BufferedImage toRgb(BufferedImage source) {
+		if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+			return source;
+		}
+		BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = rgb.createGraphics();
+		try {
+			g.setColor(Color.WHITE);
+			g.fillRect(0, 0, source.getWidth(), source.getHeight());
+			g.drawImage(source, 0, 0, null);
+		} finally {
+			g.dispose();
+		}
+		return rgb;
+	}
+
+	private void write(BufferedImage image, String format, Path target) throws IOException {
+		Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+		if (!writers.hasNext()) {
+			return;
+		}
+
+		ImageWriter writer = writers.next();
+		Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+		try (ImageOutputStream out = ImageIO.createImageOutputStream(tmp.toFile())) {
+			writer.setOutput(out);
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			if (param.canWriteCompressed()) {
+				param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+				if (param.getCompressionType() == null && param.getCompressionTypes().length > 0) {
+					param.setCompressionType(param.getCompressionTypes()[0]);
+				}
+				param.setCompressionQuality(QUALITY);
+			}
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+		Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+}
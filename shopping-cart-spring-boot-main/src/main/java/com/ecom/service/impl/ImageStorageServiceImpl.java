@@ -0,0 +1,159 @@
+package com.ecom.service.impl;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.ecom.service.ImageStorageService;
+
+/**
+ * Stores uploads outside the application under {@code <root>/<folder>/<sha256>.<ext>}.
+ * The body is streamed to a temporary file while it is hashed, then moved to its
+ * content address, so identical uploads share one file and an image never changes
+ * under an existing name.
+ *
+ * Only JPEG, PNG, GIF and WebP are kept. The format is read from the file's own
+ * bytes, which also decide its extension; the name the client sent is ignored.
+ */
+@Service
+public class ImageStorageServiceImpl implements ImageStorageService {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	// ImageIO format names of the accepted images, and the extension each is stored with
+	private static final Map<String, String> FORMATS = Map.of("jpeg", "jpg", "png", "png", "gif", "gif", "webp", "webp");
+
+	private final Path root;
+
+	public ImageStorageServiceImpl(@Value("${app.upload.dir:uploads}") String uploadDir) {
+		this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+	}
+
+	@Override
+	public String store(MultipartFile file, String folder) throws IOException {
+		if (file == null || file.isEmpty()) {
+			return null;
+		}
+
+		Path dir = getFolder(folder);
+		Files.createDirectories(dir);
+
+		Path tmp = Files.createTempFile(dir, "upload-", ".tmp");
+		try {
+			MessageDigest digest = sha256();
+			try (ReadableByteChannel in = Channels.newChannel(file.getInputStream());
+					FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+				while (in.read(buffer) != -1) {
+					buffer.flip();
+					digest.update(buffer.duplicate());
+					while (buffer.hasRemaining()) {
+						out.write(buffer);
+					}
+					buffer.clear();
+				}
+			}
+
+			String imageName = HexFormat.of().formatHex(digest.digest()) + "." + extension(tmp);
+			Path target = dir.resolve(imageName);
+			if (Files.notExists(target)) {
+				try {
+					Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+				} catch (FileAlreadyExistsException e) {
+					// stored concurrently by an identical upload
+				}
+			}
+			return imageName;
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	// uploads first, then the images bundled with the application
+	@Override
+	public InputStream openOriginal(String folder, String imageName) throws IOException {
+		Path stored = getFolder(folder).resolve(imageName).normalize();
+		if (stored.startsWith(root) && Files.isRegularFile(stored)) {
+			return Files.newInputStream(stored);
+		}
+
+		ClassPathResource bundled = new ClassPathResource("static/img/" + folder + "/" + imageName);
+		if (!bundled.exists()) {
+			throw new FileNotFoundException(folder + "/" + imageName);
+		}
+		return bundled.getInputStream();
+	}
+
+	@Override
+	public Path getFolder(String folder) throws IOException {
+		Path dir = root.resolve(folder).normalize();
+		if (!dir.startsWith(root) || dir.equals(root)) {
+			throw new IOException("invalid image folder " + folder);
+		}
+		return dir;
+	}
+
+	@Override
+	public Path getRoot() {
+		return root;
+	}
+
+	// asks the ImageIO readers which format the bytes are in, without decoding the image;
+	// WebP has no reader unless a plugin is installed, so its RIFF header is checked as well
+	private String extension(Path file) throws IOException {
+		try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+			Iterator<ImageReader> readers = in == null ? Collections.emptyIterator() : ImageIO.getImageReaders(in);
+			if (readers.hasNext()) {
+				String extension = FORMATS.get(readers.next().getFormatName().toLowerCase(Locale.ROOT));
+				if (extension != null) {
+					return extension;
+				}
+			}
+		}
+		byte[] header = new byte[12];
+		try (InputStream in = Files.newInputStream(file)) {
+			if (in.readNBytes(header, 0, header.length) == header.length
+					&& new String(header, 0, 4, StandardCharsets.US_ASCII).equals("RIFF")
+					&& new String(header, 8, 4, StandardCharsets.US_ASCII).equals("WEBP")) {
+				return "webp";
+			}
+		}
+		throw new IOException("not a JPEG, PNG, GIF or WebP image");
+	}
+
+	private MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,216 @@
+package com.ecom.service.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ObjectUtils;
+
+import com.ecom.model.UserDtls;
+import com.ecom.service.LoginAttemptService;
+import com.ecom.service.UserService;
+import com.ecom.util.AppConstant;
+import com.ecom.util.HashedTimerWheel;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Counts failed logins in memory and only touches user_dtls when an account is
+ * locked or unlocked. Unlocks are driven by a timer wheel instead of waiting
+ * for the next failed login.
+ */
+@Service
+public class LoginAttemptServiceImpl implements LoginAttemptService {
+
+	private static final int STRIPES = 16;
+
+	private static final int MAX_TRACKED_PER_STRIPE = 4096;
+
+	private static final int WHEEL_SIZE = 512;
+
+	@Autowired
+	private UserService userService;
+
+	// the reset is a database write, which does not belong on the timer thread
+	@Autowired
+	@Qualifier("applicationTaskExecutor")
+	private TaskExecutor taskExecutor;
+
+	private final Stripe[] stripes = new Stripe[STRIPES];
+
+	// the pending unlock per locked account, so locking it again replaces the earlier one
+	private final Map<String, Unlock> lockedAccounts = new ConcurrentHashMap<>();
+
+	private HashedTimerWheel timerWheel;
+
+	public LoginAttemptServiceImpl() {
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new Stripe();
+		}
+	}
+
+	@PostConstruct
+	public void init() {
+		timerWheel = new HashedTimerWheel("login-unlock", AppConstant.UNLOCK_TICK_DURATION, WHEEL_SIZE);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		timerWheel.stop();
+	}
+
+	// accounts locked before a restart still need their unlock scheduled
+	@EventListener(ApplicationReadyEvent.class)
+	public void scheduleLockedAccounts() {
+		long currentTime = System.currentTimeMillis();
+		for (UserDtls user : userService.getLockedUsers()) {
+			long lockTime = user.getLockTime() == null ? currentTime : user.getLockTime().getTime();
+			long delay = lockTime + AppConstant.UNLOCK_DURATION_TIME - currentTime;
+			scheduleUnlock(user.getId(), key(user.getEmail()), delay);
+		}
+	}
+
+	@Override
+	public boolean loginFailed(String email) {
+		if (ObjectUtils.isEmpty(email)) {
+			return false;
+		}
+
+		String key = key(email);
+		Stripe stripe = stripeFor(key);
+		int attempts;
+
+		stripe.lock.lock();
+		try {
+			attempts = stripe.record(key, System.currentTimeMillis());
+			if (attempts > AppConstant.ATTEMPT_TIME) {
+				stripe.windows.remove(key);
+			}
+		} finally {
+			stripe.lock.unlock();
+		}
+
+		if (attempts <= AppConstant.ATTEMPT_TIME) {
+			return false;
+		}
+
+		UserDtls user = userService.getUserByEmail(email);
+		if (user == null) {
+			return false;
+		}
+
+		userService.userAccountLock(user);
+		scheduleUnlock(user.getId(), key, AppConstant.UNLOCK_DURATION_TIME);
+		return true;
+	}
+
+	@Override
+	public void loginSucceeded(String email) {
+		if (ObjectUtils.isEmpty(email)) {
+			return;
+		}
+
+		String key = key(email);
+		Stripe stripe = stripeFor(key);
+
+		stripe.lock.lock();
+		try {
+			stripe.windows.remove(key);
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	private void scheduleUnlock(Integer userId, String key, long delay) {
+		Unlock unlock = new Unlock(userId, key);
+		unlock.timeout = timerWheel.newTimeout(unlock, delay);
+
+		Unlock previous = lockedAccounts.put(key, unlock);
+		if (previous != null) {
+			previous.timeout.cancel();
+		}
+	}
+
+	private Stripe stripeFor(String key) {
+		int h = key.hashCode();
+		return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+	}
+
+	private static String key(String email) {
+		return email.trim().toLowerCase(Locale.ROOT);
+	}
+
+	private final class Unlock implements Runnable {
+
+		private final Integer userId;
+
+		private final String key;
+
+		private volatile HashedTimerWheel.Timeout timeout;
+
+		private Unlock(Integer userId, String key) {
+			this.userId = userId;
+			this.key = key;
+		}
+
+		// an unlock that was replaced by a newer lock finds itself gone and does nothing
+		@Override
+		public void run() {
+			if (lockedAccounts.remove(key, this)) {
+				taskExecutor.execute(() -> userService.resetAttempt(userId));
+			}
+		}
+	}
+
+	private static final class Stripe {
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		// access ordered, so a flood of random emails only evicts the stalest entries
+		private final LinkedHashMap<String, AttemptWindow> windows = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, AttemptWindow> eldest) {
+				return size() > MAX_TRACKED_PER_STRIPE;
+			}
+		};
+
+		private int record(String key, long now) {
+			AttemptWindow window = windows.computeIfAbsent(key, k -> new AttemptWindow());
+			return window.record(now);
+		}
+	}
+
+	// ring of the most recent failure timestamps, sliding over ATTEMPT_WINDOW_TIME
+	private static final class AttemptWindow {
+
+		private final long[] times = new long[(int) AppConstant.ATTEMPT_TIME + 1];
+
+		private int start;
+
+		private int size;
+
+		private int record(long now) {
+			long windowStart = now - AppConstant.ATTEMPT_WINDOW_TIME;
+			while (size > 0 && times[start] < windowStart) {
+				start = (start + 1) % times.length;
+				size--;
+			}
+			if (size == times.length) {
+				start = (start + 1) % times.length;
+				size--;
+			}
+			times[(start + size) % times.length] = now;
+			return ++size;
+		}
+	}
+
+}
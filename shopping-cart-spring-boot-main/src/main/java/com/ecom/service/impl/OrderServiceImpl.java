@@ -1,10 +1,13 @@
 package com.ecom.service.impl;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -17,13 +20,18 @@ import com.ecom.model.OrderRequest;
 import com.ecom.model.ProductOrder;
 import com.ecom.repository.CartRepository;
 import com.ecom.repository.ProductOrderRepository;
+import com.ecom.service.EventService;
 import com.ecom.service.OrderService;
+import com.ecom.service.PopularityService;
+import com.ecom.service.RecommendationService;
 import com.ecom.util.CommonUtil;
 import com.ecom.util.OrderStatus;
 
 @Service
 public class OrderServiceImpl implements OrderService {
 
+	private static final Logger logger = LoggerFactory.getLogger(OrderServiceImpl.class);
+
 	@Autowired
 	private ProductOrderRepository orderRepository;
 
@@ -33,11 +41,22 @@ public class OrderServiceImpl implements OrderService {
 	@Autowired
 	private CommonUtil commonUtil;
 
+	@Autowired
+	private RecommendationService recommendationService;
+
+	@Autowired
+	private PopularityService popularityService;
+
+	@Autowired
+	private EventService eventService;
+
 	@Override
 	public ProductOrder saveOrder(Integer userid, OrderRequest orderRequest) throws Exception {
 
 		List<Cart> carts = cartRepository.findByUserId(userid);
 
+		List<ProductOrder> saved = new ArrayList<>();
+		ProductOrder saveOrder = null;
 		for (Cart cart : carts) {
 
 			ProductOrder order = new ProductOrder();
@@ -66,9 +85,18 @@ public class OrderServiceImpl implements OrderService {
 
 			order.setOrderAddress(address);
 
-			ProductOrder saveOrder = orderRepository.save(order);
+			saveOrder = orderRepository.save(order);
+			saved.add(saveOrder);
 		}
-		return null;
+
+		popularityService.recordOrder(saved);
+		// the order is placed either way, missing it only weakens the recommendations
+		try {
+			recommendationService.recordOrder(saved);
+		} catch (RuntimeException e) {
+			logger.warn("Could not record order for recommendations: {}", e.getMessage());
+		}
+		return saveOrder;
 	}
 
 	@Override
@@ -84,6 +112,7 @@ public class OrderServiceImpl implements OrderService {
 			ProductOrder productOrder = findById.get();
 			productOrder.setStatus(status);
 			ProductOrder updateOrder = orderRepository.save(productOrder);
+			eventService.publishOrderStatus(updateOrder);
 			return updateOrder;
 		}
 		return null;
@@ -0,0 +1,241 @@
+package com.ecom.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ObjectUtils;
+
+import com.ecom.model.OrderLine;
+import com.ecom.model.Product;
+import com.ecom.model.ProductOrder;
+import com.ecom.repository.ProductOrderRepository;
+import com.ecom.repository.ProductRepository;
+import com.ecom.service.PopularityService;
+import com.ecom.util.OrderStatus;
+import com.ecom.util.PopularitySketch;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Two streaming rankings: best sellers follow ordered units, trending follows
+ * product views plus orders, each fading with its own half-life. Both are fed
+ * as events happen and rebuilt from recent order history in the background after
+ * startup. The home page sections rank product lists the caller already has; the
+ * popular sort loads the ranked products by id and pages the rest in the database.
+ */
+@Service
+public class PopularityServiceImpl implements PopularityService {
+
+	private static final Logger logger = LoggerFactory.getLogger(PopularityServiceImpl.class);
+
+	private static final int SKETCH_WIDTH = 4096;
+
+	private static final int SKETCH_DEPTH = 4;
+
+	private static final int HEAVY_HITTERS = 256;
+
+	// older events weigh less than 1/256 of a new one
+	private static final int REPLAYED_HALF_LIVES = 8;
+
+	@Autowired
+	private ProductOrderRepository orderRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	@Qualifier("replayTaskExecutor")
+	private TaskExecutor replayTaskExecutor;
+
+	@Value("${app.popularity.best-sellers.half-life:7d}")
+	private Duration salesHalfLife;
+
+	@Value("${app.popularity.trending.half-life:6h}")
+	private Duration trendingHalfLife;
+
+	@Value("${app.popularity.trending.order-weight:10}")
+	private double orderWeight;
+
+	@Value("${app.popularity.page-ttl:60s}")
+	private Duration pageTtl;
+
+	private PopularitySketch sales;
+
+	private PopularitySketch trending;
+
+	@PostConstruct
+	public void init() {
+		long now = System.currentTimeMillis();
+		sales = new PopularitySketch(SKETCH_WIDTH, SKETCH_DEPTH, salesHalfLife.toMillis(), HEAVY_HITTERS, now);
+		trending = new PopularitySketch(SKETCH_WIDTH, SKETCH_DEPTH, trendingHalfLife.toMillis(), HEAVY_HITTERS, now);
+	}
+
+	@Override
+	public void recordView(Integer productId) {
+		if (productId != null) {
+			trending.record(productId, 1, System.currentTimeMillis());
+		}
+	}
+
+	@Override
+	public void recordOrder(List<ProductOrder> orders) {
+		long now = System.currentTimeMillis();
+		for (ProductOrder order : orders) {
+			record(order.getProduct().getId(), order.getQuantity(), now, true);
+		}
+	}
+
+	@Override
+	public List<Product> getBestSellers(List<Product> products, int limit) {
+		return ranked(sales, products, limit);
+	}
+
+	@Override
+	public Map<String, List<Product>> getTrendingByCategory(List<Product> products, int categories, int limit) {
+		// categories in the order of their hottest product
+		Map<String, List<Product>> trendingByCategory = new LinkedHashMap<>();
+		for (Product product : ranked(trending, products, HEAVY_HITTERS)) {
+			List<Product> inCategory = trendingByCategory.get(product.getCategory());
+			if (inCategory == null) {
+				if (trendingByCategory.size() == categories) {
+					continue;
+				}
+				inCategory = new ArrayList<>();
+				trendingByCategory.put(product.getCategory(), inCategory);
+			}
+			if (inCategory.size() < limit) {
+				inCategory.add(product);
+			}
+		}
+		return trendingByCategory;
+	}
+
+	@Override
+	public Page<Product> getPopularProductPagination(Integer pageNo, Integer pageSize, String category) {
+		boolean anyCategory = ObjectUtils.isEmpty(category);
+		List<Integer> top = sales.top(HEAVY_HITTERS, id -> true);
+
+		// best sellers first, in rank order
+		Map<Integer, Product> byId = new HashMap<>();
+		for (Product product : productRepository.findAllById(top)) {
+			if (Boolean.TRUE.equals(product.getIsActive()) && (anyCategory || category.equals(product.getCategory()))) {
+				byId.put(product.getId(), product);
+			}
+		}
+		List<Product> ranked = top.stream().filter(byId::containsKey).map(byId::get).toList();
+
+		PageRequest pageable = PageRequest.of(pageNo, pageSize);
+		int from = (int) Math.min(pageable.getOffset(), ranked.size());
+		List<Product> content = new ArrayList<>(ranked.subList(from, Math.min(from + pageSize, ranked.size())));
+
+		// then the rest newest first, as on the home page
+		int missing = pageSize - content.size();
+		if (missing > 0) {
+			long restOffset = pageable.getOffset() + content.size() - ranked.size();
+			Pageable rest = new PageRequest(0, missing, Sort.by(Sort.Direction.DESC, "id")) {
+				@Override
+				public long getOffset() {
+					return restOffset;
+				}
+			};
+			List<Integer> exclude = new ArrayList<>(byId.keySet());
+			content.addAll(anyCategory ? productRepository.findByIsActiveTrueAndIdNotIn(exclude, rest)
+					: productRepository.findByIsActiveTrueAndCategoryAndIdNotIn(category, exclude, rest));
+		}
+		long total = anyCategory ? productRepository.countByIsActiveTrue()
+				: productRepository.countByIsActiveTrueAndCategory(category);
+		return new PageImpl<>(content, pageable, total);
+	}
+
+	@Override
+	public long getPageTtl() {
+		return pageTtl.toMillis();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void replayInBackground() {
+		replayTaskExecutor.execute(this::replayOrderHistory);
+	}
+
+	public void replayOrderHistory() {
+		long start = System.currentTimeMillis();
+		long salesSince = start - REPLAYED_HALF_LIVES * salesHalfLife.toMillis();
+		long trendingSince = start - REPLAYED_HALF_LIVES * trendingHalfLife.toMillis();
+		LocalDate since = LocalDate.ofInstant(Instant.ofEpochMilli(Math.min(salesSince, trendingSince)),
+				ZoneId.systemDefault());
+		try {
+			Integer maxId = orderRepository.findMaxId();
+			if (maxId == null) {
+				return;
+			}
+			TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+			transaction.setReadOnly(true);
+			long lines = transaction.execute(status -> {
+				long count = 0;
+				try (Stream<OrderLine> stream = orderRepository.streamOrderLinesSince(maxId, since,
+						OrderStatus.CANCEL.getName())) {
+					for (OrderLine line : (Iterable<OrderLine>) stream::iterator) {
+						// order dates have no time, count them at midday
+						long time = line.getOrderDate().atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant()
+								.toEpochMilli();
+						record(line.getProductId(), line.getQuantity(), time, time >= trendingSince);
+						count++;
+					}
+				}
+				return count;
+			});
+			logger.info("Replayed {} order lines into the popularity rankings in {} ms", lines,
+					System.currentTimeMillis() - start);
+		} catch (RuntimeException e) {
+			logger.warn("Could not read the order history for popularity rankings: {}", e.getMessage());
+		}
+	}
+
+	private void record(Integer productId, Integer quantity, long time, boolean trendingToo) {
+		if (productId == null) {
+			return;
+		}
+		int units = quantity == null || quantity < 1 ? 1 : quantity;
+		sales.record(productId, units, time);
+		if (trendingToo) {
+			trending.record(productId, units * orderWeight, time);
+		}
+	}
+
+	// the products among the sketch's heavy hitters, highest score first
+	private List<Product> ranked(PopularitySketch sketch, List<Product> products, int limit) {
+		Map<Integer, Product> byId = new HashMap<>();
+		for (Product product : products) {
+			byId.put(product.getId(), product);
+		}
+		return sketch.top(limit, byId::containsKey).stream().map(byId::get).toList();
+	}
+
+}
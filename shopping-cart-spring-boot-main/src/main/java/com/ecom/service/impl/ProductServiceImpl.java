@@ -1,24 +1,22 @@
 package com.ecom.service.impl;
 
-import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ObjectUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.ecom.model.Product;
 import com.ecom.repository.ProductRepository;
+import com.ecom.service.EventService;
+import com.ecom.service.ImageService;
 import com.ecom.service.ProductService;
+import com.ecom.util.CatalogVersion;
 
 @Service
 public class ProductServiceImpl implements ProductService {
@@ -26,17 +24,31 @@ public class ProductServiceImpl implements ProductService {
 	@Autowired
 	private ProductRepository productRepository;
 
+	@Autowired
+	private ImageService imageService;
+
+	@Autowired
+	private CatalogVersion catalogVersion;
+
+	@Autowired
+	private EventService eventService;
+
 	@Override
 	public Product saveProduct(Product product) {
-		return productRepository.save(product);
+		Product saveProduct = productRepository.save(product);
+		catalogVersion.increment();
+		eventService.publishStock(saveProduct);
+		return saveProduct;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<Product> getAllProducts() {
 		return productRepository.findAll();
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Page<Product> getAllProductsPagination(Integer pageNo, Integer pageSize) {
 		Pageable pageable = PageRequest.of(pageNo, pageSize);
 		return productRepository.findAll(pageable);
@@ -48,12 +60,14 @@ public class ProductServiceImpl implements ProductService {
 
 		if (!ObjectUtils.isEmpty(product)) {
 			productRepository.delete(product);
+			catalogVersion.increment();
 			return true;
 		}
 		return false;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Product getProductById(Integer id) {
 		Product product = productRepository.findById(id).orElse(null);
 		return product;
@@ -64,7 +78,14 @@ public class ProductServiceImpl implements ProductService {
 
 		Product dbProduct = getProductById(product.getId());
 
-		String imageName = image.isEmpty() ? dbProduct.getImage() : image.getOriginalFilename();
+		String imageName = dbProduct.getImage();
+		if (!image.isEmpty()) {
+			try {
+				imageName = imageService.saveImage(image, "product_img");
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
 
 		dbProduct.setTitle(product.getTitle());
 		dbProduct.setDescription(product.getDescription());
@@ -75,34 +96,21 @@ public class ProductServiceImpl implements ProductService {
 		dbProduct.setIsActive(product.getIsActive());
 		dbProduct.setDiscount(product.getDiscount());
 
-		// 5=100*(5/100); 100-5=95
-		Double disocunt = product.getPrice() * (product.getDiscount() / 100.0);
-		Double discountPrice = product.getPrice() - disocunt;
-		dbProduct.setDiscountPrice(discountPrice);
+		// 100 at 5% off = 95, rounded to the cent
+		dbProduct.setDiscountPrice(product.getPrice().percentOff(product.getDiscount()));
 
 		Product updateProduct = productRepository.save(dbProduct);
+		catalogVersion.increment();
+		eventService.publishStock(updateProduct);
 
 		if (!ObjectUtils.isEmpty(updateProduct)) {
-
-			if (!image.isEmpty()) {
-
-				try {
-					File saveFile = new ClassPathResource("static/img").getFile();
-
-					Path path = Paths.get(saveFile.getAbsolutePath() + File.separator + "product_img" + File.separator
-							+ image.getOriginalFilename());
-					Files.copy(image.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
-
-				} catch (Exception e) {
-					e.printStackTrace();
-				}
-			}
 			return product;
 		}
 		return null;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<Product> getAllActiveProducts(String category) {
 		List<Product> products = null;
 		if (ObjectUtils.isEmpty(category)) {
@@ -115,17 +123,20 @@ public class ProductServiceImpl implements ProductService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<Product> searchProduct(String ch) {
 		return productRepository.findByTitleContainingIgnoreCaseOrCategoryContainingIgnoreCase(ch, ch);
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Page<Product> searchProductPagination(Integer pageNo, Integer pageSize, String ch) {
 		Pageable pageable = PageRequest.of(pageNo, pageSize);
 		return productRepository.findByTitleContainingIgnoreCaseOrCategoryContainingIgnoreCase(ch, ch, pageable);
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Page<Product> getAllActiveProductPagination(Integer pageNo, Integer pageSize, String category) {
 
 		Pageable pageable = PageRequest.of(pageNo, pageSize);
@@ -140,6 +151,7 @@ public class ProductServiceImpl implements ProductService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Page<Product> searchActiveProductPagination(Integer pageNo, Integer pageSize, String category, String ch) {
 
 		Page<Product> pageProduct = null;
@@ -157,6 +169,7 @@ public class ProductServiceImpl implements ProductService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Boolean existsByTitle(String title) {
 		return null;
 	}
@@ -0,0 +1,128 @@
+package com.ecom.service.impl;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecom.model.ProductStats;
+import com.ecom.repository.ProductStatsRepository;
+import com.ecom.service.ProductStatsService;
+import com.ecom.util.CounterTable;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Product views and add-to-cart clicks are counted in memory on the request path
+ * and written to product_stats as deltas, in one batched upsert per flush, so a
+ * busy product costs one row write every few seconds instead of one per hit.
+ * Counts read back include what has not been flushed yet.
+ */
+@Service
+public class ProductStatsServiceImpl implements ProductStatsService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductStatsServiceImpl.class);
+
+	private static final int VIEWS = 0;
+
+	private static final int CART_ADDS = 1;
+
+	// adds the deltas, so several instances can flush into the same rows
+	private static final String UPSERT = "insert into product_stats (product_id, views, cart_adds) values (?, ?, ?) "
+			+ "on duplicate key update views = views + ?, cart_adds = cart_adds + ?";
+
+	@Autowired
+	private ProductStatsRepository productStatsRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final CounterTable counters = new CounterTable(2);
+
+	@Override
+	public void recordView(Integer productId) {
+		if (productId != null) {
+			counters.increment(productId, VIEWS);
+		}
+	}
+
+	@Override
+	public void recordCartAdd(Integer productId) {
+		if (productId != null) {
+			counters.increment(productId, CART_ADDS);
+		}
+	}
+
+	@Override
+	@Scheduled(fixedDelayString = "${app.product-stats.flush-interval:5000}")
+	public int flush() {
+		List<CounterTable.Delta> deltas = counters.drain();
+		if (deltas.isEmpty()) {
+			return 0;
+		}
+		// rows locked in the same order by every instance
+		deltas.sort(Comparator.comparingInt(CounterTable.Delta::id));
+		try {
+			// one transaction, so a failed batch leaves nothing behind that restore would add a second time
+			new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT,
+					deltas, deltas.size(), (ps, delta) -> {
+						ps.setInt(1, delta.id());
+						ps.setLong(2, delta.values()[VIEWS]);
+						ps.setLong(3, delta.values()[CART_ADDS]);
+						ps.setLong(4, delta.values()[VIEWS]);
+						ps.setLong(5, delta.values()[CART_ADDS]);
+					}));
+			return deltas.size();
+		} catch (DataAccessException | TransactionException e) {
+			// counted again with the next flush
+			counters.restore(deltas);
+			logger.warn("Could not flush {} product stats rows: {}", deltas.size(), e.getMessage());
+			return 0;
+		}
+	}
+
+	@PreDestroy
+	public void destroy() {
+		flush();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public ProductStats getStats(Integer productId) {
+		ProductStats stats = productStatsRepository.findById(productId).orElse(null);
+		return withPending(productId, stats);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Page<ProductStats> getStatsPagination(Integer pageNo, Integer pageSize) {
+		PageRequest pageable = PageRequest.of(pageNo, pageSize,
+				Sort.by(Sort.Order.desc("views"), Sort.Order.asc("productId")));
+		return productStatsRepository.findAll(pageable).map(stats -> withPending(stats.getProductId(), stats));
+	}
+
+	// a copy, the entity itself stays as stored
+	private ProductStats withPending(Integer productId, ProductStats stats) {
+		long views = stats == null ? 0 : stats.getViews();
+		long cartAdds = stats == null ? 0 : stats.getCartAdds();
+		return new ProductStats(productId, views + counters.pending(productId, VIEWS),
+				cartAdds + counters.pending(productId, CART_ADDS));
+	}
+
+}
@@ -0,0 +1,179 @@
+package com.ecom.service.impl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecom.model.OrderLine;
+import com.ecom.model.Product;
+import com.ecom.model.ProductOrder;
+import com.ecom.repository.ProductOrderRepository;
+import com.ecom.repository.ProductRepository;
+import com.ecom.service.RecommendationService;
+import com.ecom.util.CoOccurrenceMatrix;
+
+/**
+ * "Frequently bought together": products that share baskets, where a basket is
+ * everything a user ordered on one day. The co-occurrence matrix is built from
+ * the order history in the background after startup and then kept current by
+ * every checkout, so related products are looked up in memory and only their
+ * details come from the product cache.
+ */
+@Service
+public class RecommendationServiceImpl implements RecommendationService {
+
+	private static final Logger logger = LoggerFactory.getLogger(RecommendationServiceImpl.class);
+
+	@Autowired
+	private ProductOrderRepository orderRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	@Qualifier("replayTaskExecutor")
+	private TaskExecutor replayTaskExecutor;
+
+	@Value("${app.recommendations.top-k:8}")
+	private int topK;
+
+	private final Object lock = new Object();
+
+	private volatile CoOccurrenceMatrix matrix;
+
+	// checkouts recorded before or while a rebuild scans the history, replayed into the new matrix
+	private List<PendingBasket> pending = new ArrayList<>();
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Product> getRelatedProducts(Integer productId) {
+		CoOccurrenceMatrix matrix = this.matrix;
+		if (matrix == null || productId == null) {
+			return List.of();
+		}
+		List<Product> products = new ArrayList<>();
+		for (int id : matrix.related(productId)) {
+			Product product = productRepository.findById(id).orElse(null);
+			if (product != null && Boolean.TRUE.equals(product.getIsActive())) {
+				products.add(product);
+			}
+		}
+		return products;
+	}
+
+	@Override
+	public void recordOrder(List<ProductOrder> orders) {
+		if (orders.isEmpty()) {
+			return;
+		}
+		ProductOrder first = orders.get(0);
+		int[] added = orders.stream().mapToInt(o -> o.getProduct().getId()).toArray();
+		int[] earlier = orderRepository.findProductIdsOrderedBefore(first.getUser().getId(), first.getOrderDate(),
+				first.getId()).stream().filter(Objects::nonNull).mapToInt(Integer::intValue).toArray();
+
+		synchronized (lock) {
+			if (matrix != null) {
+				matrix.addToBasket(earlier, added);
+			}
+			if (pending != null) {
+				pending.add(new PendingBasket(first.getId(), earlier, added));
+			}
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildInBackground() {
+		replayTaskExecutor.execute(this::rebuild);
+	}
+
+	@Override
+	public void rebuild() {
+		long start = System.currentTimeMillis();
+		CoOccurrenceMatrix built = new CoOccurrenceMatrix(topK);
+		Integer maxId = null;
+		int baskets = 0;
+		try {
+			synchronized (lock) {
+				if (pending == null) {
+					pending = new ArrayList<>();
+				}
+				maxId = orderRepository.findMaxId();
+			}
+			if (maxId != null) {
+				// the stream needs a transaction around it
+				TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+				transaction.setReadOnly(true);
+				Integer scanTo = maxId;
+				baskets = transaction.execute(status -> scan(built, scanTo));
+			}
+		} catch (RuntimeException e) {
+			// without history the matrix still fills up from new checkouts
+			logger.warn("Could not read the order history for recommendations: {}", e.getMessage());
+			maxId = null;
+		} finally {
+			synchronized (lock) {
+				for (PendingBasket basket : pending) {
+					if (maxId == null || basket.firstOrderId() > maxId) {
+						built.addToBasket(basket.earlier(), basket.added());
+					}
+				}
+				pending = null;
+				matrix = built;
+			}
+		}
+		logger.info("Built product co-occurrence from {} baskets: {} pairs in {} ms", baskets, built.getPairs(),
+				System.currentTimeMillis() - start);
+	}
+
+	private int scan(CoOccurrenceMatrix built, Integer maxId) {
+		int baskets = 0;
+		Integer userId = null;
+		LocalDate orderDate = null;
+		int[] basket = new int[CoOccurrenceMatrix.MAX_BASKET];
+		int size = 0;
+		try (Stream<OrderLine> lines = orderRepository.streamOrderLines(maxId)) {
+			for (OrderLine line : (Iterable<OrderLine>) lines::iterator) {
+				if (!Objects.equals(line.getUserId(), userId) || !Objects.equals(line.getOrderDate(), orderDate)) {
+					if (size > 1) {
+						built.addBasket(Arrays.copyOf(basket, size));
+						baskets++;
+					}
+					userId = line.getUserId();
+					orderDate = line.getOrderDate();
+					size = 0;
+				}
+				if (line.getProductId() != null && size < basket.length) {
+					basket[size++] = line.getProductId();
+				}
+			}
+		}
+		if (size > 1) {
+			built.addBasket(Arrays.copyOf(basket, size));
+			baskets++;
+		}
+		return baskets;
+	}
+
+	private record PendingBasket(int firstOrderId, int[] earlier, int[] added) {
+	}
+
+}
@@ -1,35 +1,45 @@
 package com.ecom.service.impl;
 
-import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.ObjectUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.ecom.model.UserDtls;
+import com.ecom.model.UserSummary;
 import com.ecom.repository.UserRepository;
+import com.ecom.service.ImageService;
 import com.ecom.service.UserService;
 import com.ecom.util.AppConstant;
+import com.ecom.util.JwtTokenUtil;
 
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private ImageService imageService;
+
     @Override
     public UserDtls saveUser(UserDtls user) {
         user.setRole("ROLE_USER");
@@ -48,9 +58,24 @@ public class UserServiceImpl implements UserService {
         return userRepository.findByEmail(email);
     }
 
+    // keyset paging on (role, id): afterId is the last id of the previous page
     @Override
-    public List<UserDtls> getUsers(String role) {
-        return userRepository.findByRole(role);
+    public Window<UserSummary> getUsers(String role, String search, Integer afterId, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int after = afterId == null ? 0 : afterId;
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<UserSummary> users;
+        if (ObjectUtils.isEmpty(search)) {
+            users = userRepository.findUserSummaries(role, after, limit);
+        } else {
+            String prefix = search.trim().replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+            users = userRepository.searchUserSummaries(role, after, prefix, limit);
+        }
+
+        boolean hasNext = users.size() > pageSize;
+        List<UserSummary> content = hasNext ? users.subList(0, pageSize) : users;
+        return Window.from(content, i -> ScrollPosition.forward(Map.of("id", content.get(i).getId())), hasNext);
     }
 
     @Override
@@ -68,54 +93,41 @@ public class UserServiceImpl implements UserService {
         return false;
     }
 
-    @Override
-    public void increaseFailedAttempt(UserDtls user) {
-        int attempt = user.getFailedAttempt() + 1;
-        user.setFailedAttempt(attempt);
-        userRepository.save(user);
-    }
-
     @Override
     public void userAccountLock(UserDtls user) {
         user.setAccountNonLocked(false);
+        user.setFailedAttempt((int) AppConstant.ATTEMPT_TIME);
         user.setLockTime(new Date());
         userRepository.save(user);
     }
 
     @Override
-    public boolean unlockAccountTimeExpired(UserDtls user) {
-
-        long lockTime = user.getLockTime().getTime();
-        long unLockTime = lockTime + AppConstant.UNLOCK_DURATION_TIME;
-
-        long currentTime = System.currentTimeMillis();
-
-        if (unLockTime < currentTime) {
-            user.setAccountNonLocked(true);
-            user.setFailedAttempt(0);
-            user.setLockTime(null);
-            userRepository.save(user);
-            return true;
-        }
-
-        return false;
+    public void resetAttempt(int userId) {
+        userRepository.unlockAccount(userId);
     }
 
     @Override
-    public void resetAttempt(int userId) {
-
+    public List<UserDtls> getLockedUsers() {
+        return userRepository.findByAccountNonLockedFalse();
     }
 
     @Override
-    public void updateUserResetToken(String email, String resetToken) {
-        UserDtls findByEmail = userRepository.findByEmail(email);
-        findByEmail.setResetToken(resetToken);
-        userRepository.save(findByEmail);
+    public String generateResetToken(UserDtls user) {
+        return jwtTokenUtil.generateResetToken(user);
     }
 
     @Override
     public UserDtls getUserByToken(String token) {
-        return userRepository.findByResetToken(token);
+        JwtTokenUtil.ResetToken resetToken = jwtTokenUtil.parseResetToken(token);
+        if (resetToken == null) {
+            return null;
+        }
+
+        UserDtls user = userRepository.findById(resetToken.userId()).orElse(null);
+        if (user == null || !resetToken.fingerprint().equals(jwtTokenUtil.passwordFingerprint(user.getPassword()))) {
+            return null;
+        }
+        return user;
     }
 
     @Override
@@ -129,7 +141,11 @@ public class UserServiceImpl implements UserService {
         UserDtls dbUser = userRepository.findById(user.getId()).get();
 
         if (!img.isEmpty()) {
-            dbUser.setProfileImage(img.getOriginalFilename());
+            try {
+                dbUser.setProfileImage(imageService.saveImage(img, "profile_img"));
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
         }
 
         if (!ObjectUtils.isEmpty(dbUser)) {
@@ -143,23 +159,16 @@ public class UserServiceImpl implements UserService {
             dbUser = userRepository.save(dbUser);
         }
 
-        try {
-            if (!img.isEmpty()) {
-                File saveFile = new ClassPathResource("static/img").getFile();
-
-                Path path = Paths.get(saveFile.getAbsolutePath() + File.separator + "profile_img" + File.separator
-                        + img.getOriginalFilename());
-
-//			System.out.println(path);
-                Files.copy(img.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
         return dbUser;
     }
 
+    @Override
+    public UserDtls updateProfileImage(Integer userId, String imageName) {
+        UserDtls dbUser = userRepository.findById(userId).orElseThrow();
+        dbUser.setProfileImage(imageName);
+        return userRepository.save(dbUser);
+    }
+
     @Override
     public UserDtls saveAdmin(UserDtls user) {
         user.setRole("ROLE_ADMIN");
@@ -6,4 +6,8 @@ public class AppConstant {
 			//1 * 60 * 60 * 1000;
 
 	public static final long ATTEMPT_TIME = 3;
+
+	public static final long ATTEMPT_WINDOW_TIME = 15 * 60 * 1000;
+
+	public static final long UNLOCK_TICK_DURATION = 100;
 }
@@ -0,0 +1,98 @@
+package com.ecom.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ecom.model.Category;
+import com.ecom.model.Product;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Version of the public catalog (products and categories), bumped by every write
+ * through ProductService, CategoryService and CampaignService. Catalog responses
+ * use it as their validator, so a revalidation is answered without touching the
+ * database.
+ *
+ * The version lives in the catalog_version row, so all nodes hand out the same
+ * tags. Each node keeps a copy and polls the row; when another node moved it, the
+ * products, categories and catalog queries cached here are dropped, and pages
+ * cached against the old version stop matching.
+ */
+@Component
+public class CatalogVersion {
+
+	private static final Logger logger = LoggerFactory.getLogger(CatalogVersion.class);
+
+	private static final String BUMP = "update catalog_version set version = version + 1, "
+			+ "last_modified = greatest(last_modified, ?) where id = 1";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+	// a database that has never been used starts from the boot time, so tags issued
+	// before the version was shared are not reissued
+	@PostConstruct
+	public void load() {
+		long now = System.currentTimeMillis();
+		jdbcTemplate.update("update catalog_version set version = ?, last_modified = ? where id = 1 and last_modified = 0",
+				now, now);
+		current.set(read());
+	}
+
+	public Snapshot current() {
+		return current.get();
+	}
+
+	public void increment() {
+		jdbcTemplate.update(BUMP, System.currentTimeMillis());
+		current.set(read());
+	}
+
+	// adopts the row whenever it differs, which also undoes a bump whose transaction rolled back
+	@Scheduled(fixedDelayString = "${app.catalog-version.poll-interval:2000}")
+	public void refresh() {
+		Snapshot latest;
+		try {
+			latest = read();
+		} catch (DataAccessException e) {
+			logger.warn("Could not read the catalog version: {}", e.getMessage());
+			return;
+		}
+		Snapshot previous = current.getAndSet(latest);
+		if (previous.version() != latest.version()) {
+			Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+			cache.evictEntityData(Product.class);
+			cache.evictEntityData(Category.class);
+			cache.evictQueryRegion("catalog-queries");
+			logger.debug("Catalog version {} -> {}, cached catalog dropped", previous.version(), latest.version());
+		}
+	}
+
+	private Snapshot read() {
+		return jdbcTemplate.queryForObject("select version, last_modified from catalog_version where id = 1",
+				(rs, rowNum) -> new Snapshot(rs.getLong(1), rs.getLong(2)));
+	}
+
+	public record Snapshot(long version, long lastModified) {
+
+		public String etag() {
+			return "\"catalog-" + Long.toHexString(version) + "\"";
+		}
+	}
+
+}
@@ -0,0 +1,245 @@
+package com.ecom.util;
+
+import java.util.Arrays;
+
+/**
+ * Sparse item-to-item co-occurrence counts over order baskets, with the top K
+ * neighbours of every product kept ready to serve. Rows are indexed by product id
+ * and each row is an open-addressing int to int map, so counting allocates nothing
+ * per pair. Counts only grow, so the top K of a row is maintained in place as
+ * baskets are added instead of being recomputed.
+ *
+ * Baskets are added by one thread at a time (callers serialize them); related()
+ * may be called from any thread and never blocks.
+ */
+public class CoOccurrenceMatrix {
+
+	// a basket larger than this only counts its first items, pairs grow quadratically
+	public static final int MAX_BASKET = 50;
+
+	private static final int[] NONE = new int[0];
+
+	private final int topK;
+
+	private volatile Row[] rows = new Row[64];
+
+	public CoOccurrenceMatrix(int topK) {
+		if (topK <= 0) {
+			throw new IllegalArgumentException("topK must be greater than 0");
+		}
+		this.topK = topK;
+	}
+
+	/**
+	 * Counts every pair of distinct products in the basket, in both directions.
+	 * Ids below 1 are ignored.
+	 */
+	public void addBasket(int[] productIds) {
+		addToBasket(NONE, productIds);
+	}
+
+	/**
+	 * Adds products to a basket that was already counted with the earlier ones:
+	 * counts the pairs among the added products and between them and the earlier
+	 * ones. Products already in the basket add nothing.
+	 */
+	public void addToBasket(int[] earlier, int[] added) {
+		int[] basket = distinct(earlier, NONE);
+		int[] items = distinct(added, basket);
+		if (items.length == 0 || items.length + basket.length < 2) {
+			return;
+		}
+		ensureCapacity(Math.max(items[items.length - 1], basket.length == 0 ? 0 : basket[basket.length - 1]));
+		Row[] rows = this.rows;
+		for (int a : items) {
+			Row row = row(rows, a);
+			for (int b : items) {
+				if (a != b) {
+					row.increment(b);
+				}
+			}
+			for (int b : basket) {
+				row.increment(b);
+				row(rows, b).increment(a);
+			}
+		}
+		// volatile write, so readers see rows created above
+		this.rows = rows;
+	}
+
+	/**
+	 * Products most often bought together with the given one, most frequent first.
+	 */
+	public int[] related(int productId) {
+		Row[] rows = this.rows;
+		if (productId <= 0 || productId >= rows.length) {
+			return NONE;
+		}
+		Row row = rows[productId];
+		int[] top = row == null ? null : row.top;
+		return top == null ? NONE : top.clone();
+	}
+
+	public int count(int productId, int otherId) {
+		Row[] rows = this.rows;
+		if (productId <= 0 || productId >= rows.length || rows[productId] == null) {
+			return 0;
+		}
+		return rows[productId].get(otherId);
+	}
+
+	// number of non-zero cells
+	public long getPairs() {
+		long pairs = 0;
+		for (Row row : rows) {
+			if (row != null) {
+				pairs += row.size;
+			}
+		}
+		return pairs;
+	}
+
+	private void ensureCapacity(int maxId) {
+		Row[] rows = this.rows;
+		if (maxId >= rows.length) {
+			this.rows = Arrays.copyOf(rows, Math.max(rows.length * 2, Integer.highestOneBit(maxId) * 2));
+		}
+	}
+
+	private Row row(Row[] rows, int productId) {
+		Row row = rows[productId];
+		if (row == null) {
+			row = new Row(topK);
+			rows[productId] = row;
+		}
+		return row;
+	}
+
+	// sorted distinct ids above 0 that are not in the (sorted) excluded ids
+	private static int[] distinct(int[] productIds, int[] excluded) {
+		int[] items = new int[Math.min(productIds.length, MAX_BASKET)];
+		int n = 0;
+		for (int i = 0; i < productIds.length && n < items.length; i++) {
+			if (productIds[i] > 0 && Arrays.binarySearch(excluded, productIds[i]) < 0) {
+				items[n++] = productIds[i];
+			}
+		}
+		Arrays.sort(items, 0, n);
+		int size = 0;
+		for (int i = 0; i < n; i++) {
+			if (size == 0 || items[size - 1] != items[i]) {
+				items[size++] = items[i];
+			}
+		}
+		return Arrays.copyOf(items, size);
+	}
+
+	private static final class Row {
+
+		// 0 marks an empty slot, product ids start at 1
+		private int[] keys = new int[8];
+
+		private int[] counts = new int[8];
+
+		private int size;
+
+		// neighbours and their counts, highest count first; top is republished on change
+		private final int[] topIds;
+
+		private final int[] topCounts;
+
+		private int topSize;
+
+		private volatile int[] top;
+
+		private Row(int topK) {
+			this.topIds = new int[topK];
+			this.topCounts = new int[topK];
+		}
+
+		private int get(int key) {
+			int mask = keys.length - 1;
+			for (int i = mix(key) & mask;; i = (i + 1) & mask) {
+				if (keys[i] == key) {
+					return counts[i];
+				}
+				if (keys[i] == 0) {
+					return 0;
+				}
+			}
+		}
+
+		private void increment(int key) {
+			int mask = keys.length - 1;
+			int i = mix(key) & mask;
+			while (keys[i] != 0 && keys[i] != key) {
+				i = (i + 1) & mask;
+			}
+			if (keys[i] == 0) {
+				keys[i] = key;
+				size++;
+			}
+			int count = ++counts[i];
+			if (size * 4 > keys.length * 3) {
+				rehash();
+			}
+			updateTop(key, count);
+		}
+
+		private void rehash() {
+			int[] oldKeys = keys;
+			int[] oldCounts = counts;
+			keys = new int[oldKeys.length * 2];
+			counts = new int[oldKeys.length * 2];
+			int mask = keys.length - 1;
+			for (int j = 0; j < oldKeys.length; j++) {
+				if (oldKeys[j] != 0) {
+					int i = mix(oldKeys[j]) & mask;
+					while (keys[i] != 0) {
+						i = (i + 1) & mask;
+					}
+					keys[i] = oldKeys[j];
+					counts[i] = oldCounts[j];
+				}
+			}
+		}
+
+		private void updateTop(int key, int count) {
+			int pos = -1;
+			for (int i = 0; i < topSize; i++) {
+				if (topIds[i] == key) {
+					pos = i;
+					break;
+				}
+			}
+			boolean changed = pos < 0;
+			if (pos < 0) {
+				if (topSize < topIds.length) {
+					pos = topSize++;
+				} else if (count > topCounts[topSize - 1]) {
+					pos = topSize - 1;
+				} else {
+					return;
+				}
+			}
+			// counts only grow, so the neighbour can only move towards the front
+			while (pos > 0 && topCounts[pos - 1] < count) {
+				topIds[pos] = topIds[pos - 1];
+				topCounts[pos] = topCounts[pos - 1];
+				pos--;
+				changed = true;
+			}
+			topIds[pos] = key;
+			topCounts[pos] = count;
+			if (changed) {
+				top = Arrays.copyOf(topIds, topSize);
+			}
+		}
+
+		private static int mix(int key) {
+			int h = key * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+	}
+
+}
@@ -2,9 +2,16 @@ package com.ecom.util;
 
 import java.security.Principal;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import com.ecom.model.UserDtls;
 import com.ecom.service.UserService;
@@ -14,13 +21,23 @@ import com.ecom.service.UserService;
 @Component
 public class CommonUtil {
 
+    private static final Logger logger = LoggerFactory.getLogger(CommonUtil.class);
 
     @Autowired
     private UserService userService;
 
+    // only configured when spring.mail.host is set
+    @Autowired
+    private ObjectProvider<JavaMailSender> mailSender;
 
+    @Value("${app.base-url}")
+    private String baseUrl;
 
+    @Value("${spring.mail.username:}")
+    private String mailFrom;
 
+    @Value("${app.reset-token.expiration}")
+    private long resetTokenExpiration;
 
 
 
@@ -30,5 +47,34 @@ public class CommonUtil {
         return userDtls;
     }
 
+    // The reset token only ever goes to the account's mailbox. The link is built from
+    // app.base-url, never from the request's Host header, which the caller controls.
+    public boolean sendResetLink(UserDtls user, String token) {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            logger.warn("spring.mail.host is not set, no password reset mail sent to user {}", user.getId());
+            return false;
+        }
+        String url = UriComponentsBuilder.fromHttpUrl(baseUrl).path("/reset-password").queryParam("token", token)
+                .encode().toUriString();
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        if (!mailFrom.isEmpty()) {
+            message.setFrom(mailFrom);
+        }
+        message.setTo(user.getEmail());
+        message.setSubject("Password reset");
+        message.setText("Hello " + user.getName() + ",\n\nOpen this link to choose a new password:\n" + url
+                + "\n\nThe link expires in " + resetTokenExpiration / 60000
+                + " minutes. If you did not ask for it, ignore this mail.\n");
+        try {
+            sender.send(message);
+            return true;
+        } catch (MailException e) {
+            logger.warn("Could not send the password reset mail to user {}: {}", user.getId(), e.getMessage());
+            return false;
+        }
+    }
+
 
 }
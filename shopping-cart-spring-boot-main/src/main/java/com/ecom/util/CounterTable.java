@@ -0,0 +1,112 @@
+package com.ecom.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory counters keyed by id, with a fixed number of columns, meant to be
+ * drained into the database in batches. Incrementing never locks: a row is found
+ * with a lock-free map read (only its first increment inserts it) and each column
+ * is a LongAdder, which spreads contended updates over striped cells. Draining
+ * resets each adder cell by cell with getAndSet, so increments racing a drain
+ * land in this batch or the next, never in neither.
+ *
+ * Each drain starts a new map and keeps the previous one for one more drain, which
+ * picks up increments that still found a row there after the swap; rows are then
+ * dropped, so only ids counted in the last two intervals take memory.
+ */
+public class CounterTable {
+
+	private final int columns;
+
+	private volatile Map<Integer, LongAdder[]> rows = new ConcurrentHashMap<>();
+
+	// swapped out by the last drain, drained once more by the next one
+	private volatile Map<Integer, LongAdder[]> retired = Map.of();
+
+	public CounterTable(int columns) {
+		this.columns = columns;
+	}
+
+	public void add(int id, int column, long delta) {
+		Map<Integer, LongAdder[]> rows = this.rows;
+		LongAdder[] row = rows.get(id);
+		if (row == null) {
+			row = rows.computeIfAbsent(id, k -> newRow());
+		}
+		row[column].add(delta);
+	}
+
+	public void increment(int id, int column) {
+		add(id, column, 1);
+	}
+
+	// not yet drained
+	public long pending(int id, int column) {
+		LongAdder[] row = rows.get(id);
+		LongAdder[] old = retired.get(id);
+		return (row == null ? 0 : row[column].sum()) + (old == null ? 0 : old[column].sum());
+	}
+
+	// ids currently holding a row
+	public int size() {
+		return rows.size() + retired.size();
+	}
+
+	/**
+	 * Takes and resets the counts of every row that changed since the last drain.
+	 */
+	public synchronized List<Delta> drain() {
+		Map<Integer, LongAdder[]> previous = retired;
+		Map<Integer, LongAdder[]> current = rows;
+		rows = new ConcurrentHashMap<>();
+		retired = current;
+
+		Map<Integer, long[]> sums = new LinkedHashMap<>();
+		sum(current, sums);
+		sum(previous, sums);
+		List<Delta> deltas = new ArrayList<>(sums.size());
+		sums.forEach((id, values) -> deltas.add(new Delta(id, values)));
+		return deltas;
+	}
+
+	// puts back deltas that could not be written
+	public void restore(List<Delta> deltas) {
+		for (Delta delta : deltas) {
+			for (int i = 0; i < columns; i++) {
+				add(delta.id(), i, delta.values()[i]);
+			}
+		}
+	}
+
+	private void sum(Map<Integer, LongAdder[]> rows, Map<Integer, long[]> sums) {
+		rows.forEach((id, row) -> {
+			long[] values = null;
+			for (int i = 0; i < columns; i++) {
+				long value = row[i].sumThenReset();
+				if (value != 0) {
+					if (values == null) {
+						values = sums.computeIfAbsent(id, k -> new long[columns]);
+					}
+					values[i] += value;
+				}
+			}
+		});
+	}
+
+	private LongAdder[] newRow() {
+		LongAdder[] row = new LongAdder[columns];
+		for (int i = 0; i < columns; i++) {
+			row[i] = new LongAdder();
+		}
+		return row;
+	}
+
+	public record Delta(int id, long[] values) {
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.ecom.util;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timer wheel: one daemon thread advances a fixed ring of buckets every
+ * tick and runs the timeouts that fall due. Scheduling and cancelling are O(1)
+ * and never block the caller. Tasks run on the wheel thread, so they must be
+ * short.
+ */
+public class HashedTimerWheel {
+
+	private static final Logger logger = LoggerFactory.getLogger(HashedTimerWheel.class);
+
+	private final long tickDuration;
+
+	private final ArrayDeque<Timeout>[] wheel;
+
+	private final int mask;
+
+	private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+	private final long startTime;
+
+	private final Thread worker;
+
+	private volatile boolean running = true;
+
+	private long tick;
+
+	@SuppressWarnings("unchecked")
+	public HashedTimerWheel(String name, long tickDuration, int ticksPerWheel) {
+		if (tickDuration <= 0) {
+			throw new IllegalArgumentException("tickDuration must be greater than 0");
+		}
+		int size = Integer.highestOneBit(Math.max(ticksPerWheel, 1) * 2 - 1);
+		this.tickDuration = TimeUnit.MILLISECONDS.toNanos(tickDuration);
+		this.wheel = new ArrayDeque[size];
+		for (int i = 0; i < size; i++) {
+			wheel[i] = new ArrayDeque<>();
+		}
+		this.mask = size - 1;
+		this.startTime = System.nanoTime();
+		this.worker = new Thread(this::run, name);
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	public Timeout newTimeout(Runnable task, long delay) {
+		if (!running) {
+			throw new IllegalStateException("timer wheel stopped");
+		}
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(delay, 0)) - startTime;
+		Timeout timeout = new Timeout(task, deadline);
+		pendingTimeouts.add(timeout);
+		return timeout;
+	}
+
+	public void stop() {
+		running = false;
+		worker.interrupt();
+	}
+
+	private void run() {
+		while (running) {
+			long deadline = tickDuration * (tick + 1);
+			long sleepTime = deadline - (System.nanoTime() - startTime);
+			if (sleepTime > 0) {
+				try {
+					TimeUnit.NANOSECONDS.sleep(sleepTime);
+				} catch (InterruptedException e) {
+					if (!running) {
+						return;
+					}
+				}
+				continue;
+			}
+			transferPendingTimeouts();
+			expireTimeouts(wheel[(int) (tick & mask)], deadline);
+			tick++;
+		}
+	}
+
+	private void transferPendingTimeouts() {
+		Timeout timeout;
+		while ((timeout = pendingTimeouts.poll()) != null) {
+			if (timeout.cancelled) {
+				continue;
+			}
+			long calculated = timeout.deadline / tickDuration;
+			timeout.remainingRounds = (calculated - tick) / wheel.length;
+			long ticks = Math.max(calculated, tick);
+			wheel[(int) (ticks & mask)].add(timeout);
+		}
+	}
+
+	private void expireTimeouts(ArrayDeque<Timeout> bucket, long deadline) {
+		Iterator<Timeout> iterator = bucket.iterator();
+		while (iterator.hasNext()) {
+			Timeout timeout = iterator.next();
+			if (timeout.cancelled) {
+				iterator.remove();
+			} else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+				iterator.remove();
+				try {
+					timeout.task.run();
+				} catch (Throwable t) {
+					logger.error("Timer task failed: {}", t.getMessage(), t);
+				}
+			} else {
+				timeout.remainingRounds--;
+			}
+		}
+	}
+
+	public static final class Timeout {
+
+		private final Runnable task;
+
+		private final long deadline;
+
+		private long remainingRounds;
+
+		private volatile boolean cancelled;
+
+		private Timeout(Runnable task, long deadline) {
+			this.task = task;
+			this.deadline = deadline;
+		}
+
+		public void cancel() {
+			cancelled = true;
+		}
+
+		public boolean isCancelled() {
+			return cancelled;
+		}
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.ecom.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.util.ObjectUtils;
+
+public enum ImageVariant {
+
+	THUMB("thumb", 150), CARD("card", 400), DETAIL("detail", 1000);
+
+	// WebP is served when an ImageIO WebP plugin is on the classpath, JPEG otherwise
+	public static final String FORMAT = ImageIO.getImageWritersByFormatName("webp").hasNext() ? "webp" : "jpg";
+
+	private String name;
+
+	private int width;
+
+	private ImageVariant(String name, int width) {
+		this.name = name;
+		this.width = width;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public String fileName(String imageName, String format) {
+		return imageName + "." + format;
+	}
+
+	public String url(String folder, String imageName) {
+		if (ObjectUtils.isEmpty(imageName)) {
+			return originalUrl(folder, imageName);
+		}
+		return "/img/" + folder + "/" + name + "/" + fileName(imageName, FORMAT);
+	}
+
+	public static String originalUrl(String folder, String imageName) {
+		return "/img/" + folder + "/" + imageName;
+	}
+
+	public static Map<String, String> urls(String folder, String imageName) {
+		Map<String, String> urls = new LinkedHashMap<>();
+		for (ImageVariant variant : values()) {
+			urls.put(variant.name, variant.url(folder, imageName));
+		}
+		urls.put("original", originalUrl(folder, imageName));
+		return urls;
+	}
+
+	public static ImageVariant fromName(String name) {
+		for (ImageVariant variant : values()) {
+			if (variant.name.equalsIgnoreCase(name)) {
+				return variant;
+			}
+		}
+		return null;
+	}
+
+}
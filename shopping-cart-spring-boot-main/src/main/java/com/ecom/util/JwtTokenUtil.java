@@ -0,0 +1,189 @@
+package com.ecom.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ObjectUtils;
+
+import com.ecom.config.TokenUser;
+import com.ecom.model.UserDtls;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Issues and verifies HS256 signed JWT access tokens and signed password reset
+ * tokens. Verification only needs the shared secret, so any node can check a
+ * token without a database or session lookup.
+ */
+@Component
+public class JwtTokenUtil {
+
+	private static final Logger logger = LoggerFactory.getLogger(JwtTokenUtil.class);
+
+	private static final String ALGORITHM = "HmacSHA256";
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private static final String RESET_PREFIX = "reset.";
+
+	private static final String HEADER = ENCODER
+			.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final SecretKeySpec secretKey;
+
+	private final long expiration;
+
+	private final long resetExpiration;
+
+	public JwtTokenUtil(@Value("${app.jwt.secret:}") String secret, @Value("${app.jwt.expiration:3600000}") long expiration,
+			@Value("${app.reset-token.expiration:900000}") long resetExpiration) {
+		byte[] keyBytes;
+		if (ObjectUtils.isEmpty(secret)) {
+			// tokens will not survive a restart or validate on other nodes
+			logger.warn("app.jwt.secret is not set, using a random per-instance key");
+			keyBytes = new byte[32];
+			new SecureRandom().nextBytes(keyBytes);
+		} else {
+			keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+		}
+		this.secretKey = new SecretKeySpec(keyBytes, ALGORITHM);
+		this.expiration = expiration;
+		this.resetExpiration = resetExpiration;
+	}
+
+	public String generateToken(UserDtls user) {
+		long issuedAt = System.currentTimeMillis() / 1000;
+
+		Map<String, Object> claims = new LinkedHashMap<>();
+		claims.put("sub", user.getEmail());
+		claims.put("uid", user.getId());
+		claims.put("role", user.getRole());
+		claims.put("iat", issuedAt);
+		claims.put("exp", issuedAt + expiration / 1000);
+
+		try {
+			String payload = ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+			String content = HEADER + "." + payload;
+			return content + "." + ENCODER.encodeToString(sign(content));
+		} catch (Exception e) {
+			throw new IllegalStateException("Unable to generate token", e);
+		}
+	}
+
+	public TokenUser validateToken(String token) {
+		if (ObjectUtils.isEmpty(token)) {
+			return null;
+		}
+
+		int first = token.indexOf('.');
+		int last = token.lastIndexOf('.');
+		if (first <= 0 || first == last || !HEADER.equals(token.substring(0, first))) {
+			return null;
+		}
+
+		try {
+			byte[] signature = DECODER.decode(token.substring(last + 1));
+			if (!MessageDigest.isEqual(signature, sign(token.substring(0, last)))) {
+				return null;
+			}
+
+			Map<String, Object> claims = objectMapper.readValue(DECODER.decode(token.substring(first + 1, last)),
+					new TypeReference<Map<String, Object>>() {
+					});
+
+			long exp = ((Number) claims.get("exp")).longValue();
+			if (exp * 1000 < System.currentTimeMillis()) {
+				return null;
+			}
+
+			return new TokenUser(((Number) claims.get("uid")).intValue(), (String) claims.get("sub"),
+					(String) claims.get("role"));
+		} catch (Exception e) {
+			logger.debug("Rejected token: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	public long getExpiration() {
+		return expiration;
+	}
+
+	// userId:expiry:fingerprint, the fingerprint changes with the password so a token works only once
+	public String generateResetToken(UserDtls user) {
+		long exp = System.currentTimeMillis() / 1000 + resetExpiration / 1000;
+		String payload = user.getId() + ":" + exp + ":" + passwordFingerprint(user.getPassword());
+		String content = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+
+		try {
+			return content + "." + ENCODER.encodeToString(sign(RESET_PREFIX + content));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Unable to generate reset token", e);
+		}
+	}
+
+	public ResetToken parseResetToken(String token) {
+		if (ObjectUtils.isEmpty(token)) {
+			return null;
+		}
+
+		int dot = token.indexOf('.');
+		if (dot <= 0 || dot != token.lastIndexOf('.')) {
+			return null;
+		}
+
+		try {
+			String content = token.substring(0, dot);
+			byte[] signature = DECODER.decode(token.substring(dot + 1));
+			if (!MessageDigest.isEqual(signature, sign(RESET_PREFIX + content))) {
+				return null;
+			}
+
+			String[] parts = new String(DECODER.decode(content), StandardCharsets.UTF_8).split(":");
+			if (parts.length != 3 || Long.parseLong(parts[1]) * 1000 < System.currentTimeMillis()) {
+				return null;
+			}
+
+			return new ResetToken(Integer.valueOf(parts[0]), parts[2]);
+		} catch (Exception e) {
+			logger.debug("Rejected reset token: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	public String passwordFingerprint(String password) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256")
+					.digest(String.valueOf(password).getBytes(StandardCharsets.UTF_8));
+			return ENCODER.encodeToString(Arrays.copyOf(digest, 12));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public record ResetToken(Integer userId, String fingerprint) {
+	}
+
+	private byte[] sign(String content) throws GeneralSecurityException {
+		Mac mac = Mac.getInstance(ALGORITHM);
+		mac.init(secretKey);
+		return mac.doFinal(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,143 @@
+package com.ecom.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process metrics, written out in the Prometheus text format by /metrics.
+ * Latencies go into histograms with fixed buckets; counters and gauges are read
+ * from their source (Hibernate statistics, the connection pool, the JVM) when the
+ * endpoint is scraped. Names follow the Micrometer conventions, so dashboards
+ * carry over if the application moves to Actuator.
+ */
+@Component
+public class MetricsRegistry {
+
+	// upper bounds in seconds, from 1 ms to 10 s
+	private static final double[] BUCKETS = { 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10 };
+
+	private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Histogram for one set of label values; labels are given as name, value pairs
+	 * and must always be passed in the same order for a metric.
+	 */
+	public Histogram histogram(String name, String help, String... labels) {
+		return (Histogram) family(name, help, "histogram").samples.computeIfAbsent(List.of(labels), key -> new Histogram());
+	}
+
+	public void counter(String name, String help, DoubleSupplier value, String... labels) {
+		family(name, help, "counter").samples.put(List.of(labels), value);
+	}
+
+	public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+		family(name, help, "gauge").samples.put(List.of(labels), value);
+	}
+
+	public String scrape() {
+		StringBuilder out = new StringBuilder(8192);
+		for (Map.Entry<String, Family> entry : families.entrySet()) {
+			String name = entry.getKey();
+			Family family = entry.getValue();
+			out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+			out.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+			family.samples.forEach((labels, sample) -> {
+				if (sample instanceof Histogram histogram) {
+					histogram.write(out, name, labels);
+				} else {
+					line(out, name, labels, null, ((DoubleSupplier) sample).getAsDouble());
+				}
+			});
+		}
+		return out.toString();
+	}
+
+	private Family family(String name, String help, String type) {
+		return families.computeIfAbsent(name, key -> new Family(help, type));
+	}
+
+	private static void line(StringBuilder out, String name, List<String> labels, String le, double value) {
+		out.append(name);
+		if (!labels.isEmpty() || le != null) {
+			out.append('{');
+			for (int i = 0; i + 1 < labels.size(); i += 2) {
+				if (i > 0) {
+					out.append(',');
+				}
+				out.append(labels.get(i)).append("=\"").append(escape(labels.get(i + 1))).append('"');
+			}
+			if (le != null) {
+				out.append(labels.isEmpty() ? "" : ",").append("le=\"").append(le).append('"');
+			}
+			out.append('}');
+		}
+		out.append(' ');
+		if (value == Math.rint(value) && !Double.isInfinite(value)) {
+			out.append((long) value);
+		} else {
+			out.append(value);
+		}
+		out.append('\n');
+	}
+
+	private static String escape(String value) {
+		if (value == null) {
+			return "";
+		}
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+
+	private static class Family {
+
+		private final String help;
+
+		private final String type;
+
+		// label values to a Histogram or a DoubleSupplier
+		private final Map<List<String>, Object> samples = new ConcurrentHashMap<>();
+
+		Family(String help, String type) {
+			this.help = help;
+			this.type = type;
+		}
+	}
+
+	public static class Histogram {
+
+		private final LongAdder[] buckets = new LongAdder[BUCKETS.length + 1];
+
+		private final LongAdder sumNanos = new LongAdder();
+
+		Histogram() {
+			Arrays.setAll(buckets, i -> new LongAdder());
+		}
+
+		public void record(long nanos) {
+			double seconds = nanos / 1e9;
+			int bucket = 0;
+			while (bucket < BUCKETS.length && seconds > BUCKETS[bucket]) {
+				bucket++;
+			}
+			buckets[bucket].increment();
+			sumNanos.add(nanos);
+		}
+
+		private void write(StringBuilder out, String name, List<String> labels) {
+			long cumulative = 0;
+			for (int i = 0; i < buckets.length; i++) {
+				cumulative += buckets[i].sum();
+				line(out, name + "_bucket", labels, i < BUCKETS.length ? Double.toString(BUCKETS[i]) : "+Inf", cumulative);
+			}
+			line(out, name + "_count", labels, null, cumulative);
+			line(out, name + "_sum", labels, null, sumNanos.sum() / 1e9);
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.ecom.util;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * An amount of money as a whole number of cents, so sums and products are exact
+ * and only a percentage rounds (half up, to the cent). The static methods work on
+ * the cents as a long and allocate nothing; loops over many lines should use them
+ * and wrap the result once. Stored as DECIMAL(12,2) (see MoneyConverter) and
+ * written to JSON as a plain number with two decimals.
+ */
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public final class Money implements Comparable<Money> {
+
+	public static final Money ZERO = new Money(0);
+
+	private final long cents;
+
+	private Money(long cents) {
+		this.cents = cents;
+	}
+
+	public static Money ofCents(long cents) {
+		return cents == 0 ? ZERO : new Money(cents);
+	}
+
+	public static Money of(BigDecimal amount) {
+		return ofCents(amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+	}
+
+	// decimal literal semantics: of(0.1) is 10 cents, not the nearest double
+	public static Money of(double amount) {
+		return of(BigDecimal.valueOf(amount));
+	}
+
+	// lets Spring bind form fields and request parameters; a blank field binds to null, as for a number
+	public static Money valueOf(String amount) {
+		return amount.isBlank() ? null : of(new BigDecimal(amount.trim()));
+	}
+
+	public long cents() {
+		return cents;
+	}
+
+	public Money plus(Money other) {
+		return ofCents(Math.addExact(cents, other.cents));
+	}
+
+	public Money times(int quantity) {
+		return ofCents(times(cents, quantity));
+	}
+
+	public Money percentOff(int percent) {
+		return ofCents(percentOff(cents, percent));
+	}
+
+	public static long times(long cents, int quantity) {
+		return Math.multiplyExact(cents, quantity);
+	}
+
+	public static long percentOff(long cents, int percent) {
+		long scaled = Math.multiplyExact(cents, 100 - percent);
+		return (scaled + (scaled < 0 ? -50 : 50)) / 100;
+	}
+
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(cents, 2);
+	}
+
+	@Override
+	public int compareTo(Money other) {
+		return Long.compare(cents, other.cents);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof Money money && money.cents == cents;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(cents);
+	}
+
+	@Override
+	public String toString() {
+		long abs = Math.abs(cents);
+		long fraction = abs % 100;
+		return (cents < 0 ? "-" : "") + abs / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+	}
+
+	static class Serializer extends JsonSerializer<Money> {
+
+		@Override
+		public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+			gen.writeNumber(value.toString());
+		}
+	}
+
+	static class Deserializer extends JsonDeserializer<Money> {
+
+		@Override
+		public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+			// "12.50" is accepted as well as 12.50, as Jackson does for numbers
+			if (parser.hasToken(JsonToken.VALUE_STRING)) {
+				return Money.valueOf(parser.getText());
+			}
+			return Money.of(parser.getDecimalValue());
+		}
+	}
+
+}
@@ -0,0 +1,186 @@
+package com.ecom.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+
+/**
+ * Time-decayed popularity of ids in fixed memory: a count-min sketch estimates
+ * every id's score and a bounded set of heavy hitters remembers which ids are
+ * worth ranking. An event's weight halves every half-life. Decay is applied
+ * forward: an event at time t is added as weight * 2^((t - landmark) / halfLife),
+ * so older counts never need to be touched and the ranking is the same whatever
+ * the time it is read at.
+ *
+ * Recording is lock-free: the counters are updated with CAS, and only an id that
+ * newly enters the heavy hitters is added to a concurrent set. Trimming the set
+ * is done by whichever thread gets the lock; the others do not wait for it.
+ * Estimates never undercount and overcount by at most about e / width of the
+ * total weight, with high probability over the depth rows.
+ */
+public class PopularitySketch {
+
+	// rescale before 2^exponent gets anywhere near the range of a double
+	private static final double MAX_EXPONENT = 256;
+
+	private static final long[] SEEDS = { 0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L,
+			0xD6E8FEB86659FD93L, 0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L };
+
+	private final int width;
+
+	private final int depth;
+
+	private final int shift;
+
+	private final double halfLife;
+
+	private final int capacity;
+
+	private final Set<Integer> candidates = ConcurrentHashMap.newKeySet();
+
+	private final ReentrantLock trimLock = new ReentrantLock();
+
+	private volatile State state;
+
+	// smallest (forward) score still kept in the heavy hitters once they are full
+	private volatile double admission;
+
+	/**
+	 * @param width    counters per row, rounded up to a power of two
+	 * @param depth    rows, at most 8
+	 * @param halfLife in milliseconds
+	 * @param capacity heavy hitters kept for ranking
+	 */
+	public PopularitySketch(int width, int depth, long halfLife, int capacity, long now) {
+		if (width <= 0 || depth <= 0 || depth > SEEDS.length || halfLife <= 0 || capacity <= 0) {
+			throw new IllegalArgumentException("Invalid sketch dimensions");
+		}
+		this.width = Math.max(2, Integer.highestOneBit(width * 2 - 1));
+		this.depth = depth;
+		this.shift = 64 - Integer.numberOfTrailingZeros(this.width);
+		this.halfLife = halfLife;
+		this.capacity = capacity;
+		this.state = new State(now, new AtomicLongArray(this.width * depth));
+	}
+
+	public void record(int id, double weight, long time) {
+		State state = this.state;
+		double exponent = (time - state.landmark) / halfLife;
+		if (exponent > MAX_EXPONENT) {
+			rescale(time);
+			state = this.state;
+			exponent = (time - state.landmark) / halfLife;
+		}
+		double added = weight * Math.pow(2, exponent);
+
+		double estimate = Double.MAX_VALUE;
+		for (int row = 0; row < depth; row++) {
+			estimate = Math.min(estimate, add(state.cells, index(id, row), added));
+		}
+
+		if (estimate > admission && !candidates.contains(id)) {
+			candidates.add(id);
+			if (candidates.size() > capacity * 2 && trimLock.tryLock()) {
+				try {
+					trim();
+				} finally {
+					trimLock.unlock();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Decayed score of the id at the given time.
+	 */
+	public double estimate(int id, long time) {
+		State state = this.state;
+		return raw(state, id) / Math.pow(2, (time - state.landmark) / halfLife);
+	}
+
+	/**
+	 * Heavy hitters accepted by the filter, highest score first.
+	 */
+	public List<Integer> top(int limit, IntPredicate filter) {
+		State state = this.state;
+		List<Scored> scored = new ArrayList<>();
+		for (Integer id : candidates) {
+			if (filter.test(id)) {
+				scored.add(new Scored(id, raw(state, id)));
+			}
+		}
+		scored.sort(Comparator.comparingDouble(Scored::score).reversed().thenComparing(Scored::id));
+		List<Integer> top = new ArrayList<>(Math.min(limit, scored.size()));
+		for (int i = 0; i < scored.size() && i < limit; i++) {
+			top.add(scored.get(i).id());
+		}
+		return top;
+	}
+
+	// keeps the highest scoring half with a min-heap and raises the bar to enter
+	private void trim() {
+		State state = this.state;
+		PriorityQueue<Scored> heap = new PriorityQueue<>(capacity + 1, Comparator.comparingDouble(Scored::score));
+		for (Integer id : candidates) {
+			heap.add(new Scored(id, raw(state, id)));
+			if (heap.size() > capacity) {
+				candidates.remove(heap.poll().id());
+			}
+		}
+		if (!heap.isEmpty()) {
+			admission = heap.peek().score();
+		}
+	}
+
+	// divides every counter by 2^exponent and moves the landmark to now; events
+	// recorded into the old counters while they are copied are lost
+	private synchronized void rescale(long time) {
+		State old = this.state;
+		if ((time - old.landmark) / halfLife <= MAX_EXPONENT) {
+			return;
+		}
+		double factor = Math.pow(2, -(time - old.landmark) / halfLife);
+		AtomicLongArray cells = new AtomicLongArray(old.cells.length());
+		for (int i = 0; i < cells.length(); i++) {
+			cells.set(i, Double.doubleToRawLongBits(Double.longBitsToDouble(old.cells.get(i)) * factor));
+		}
+		admission *= factor;
+		this.state = new State(time, cells);
+	}
+
+	private double raw(State state, int id) {
+		double estimate = Double.MAX_VALUE;
+		for (int row = 0; row < depth; row++) {
+			estimate = Math.min(estimate, Double.longBitsToDouble(state.cells.get(index(id, row))));
+		}
+		return estimate;
+	}
+
+	private int index(int id, int row) {
+		// multiplicative hashing, the high bits are the well mixed ones
+		return row * width + (int) (((id + 1L) * SEEDS[row]) >>> shift);
+	}
+
+	private static double add(AtomicLongArray cells, int index, double value) {
+		while (true) {
+			long current = cells.get(index);
+			double updated = Double.longBitsToDouble(current) + value;
+			if (cells.compareAndSet(index, current, Double.doubleToRawLongBits(updated))) {
+				return updated;
+			}
+		}
+	}
+
+	private record State(long landmark, AtomicLongArray cells) {
+	}
+
+	private record Scored(int id, double score) {
+	}
+
+}
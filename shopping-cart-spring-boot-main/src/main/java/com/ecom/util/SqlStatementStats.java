@@ -0,0 +1,111 @@
+package com.ecom.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statements executed and JDBC time spent on the current thread between open()
+ * and close(), recorded by SqlCountingDataSource. SqlBudgetFilter opens one per
+ * request; a test can open one around several requests, which then also sees
+ * everything the nested per-request stats record. Not shared between threads.
+ */
+public final class SqlStatementStats implements AutoCloseable {
+
+	private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+	// distinct statements remembered per scope, the rest is only counted
+	private static final int MAX_DISTINCT = 50;
+
+	private final SqlStatementStats parent;
+
+	private final Map<String, Entry> bySql = new LinkedHashMap<>();
+
+	private int statements;
+
+	private long jdbcNanos;
+
+	private SqlStatementStats(SqlStatementStats parent) {
+		this.parent = parent;
+	}
+
+	public static SqlStatementStats open() {
+		SqlStatementStats stats = new SqlStatementStats(CURRENT.get());
+		CURRENT.set(stats);
+		return stats;
+	}
+
+	public static boolean isActive() {
+		return CURRENT.get() != null;
+	}
+
+	public static void record(String sql, long nanos) {
+		for (SqlStatementStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+			stats.add(sql, nanos);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (CURRENT.get() == this) {
+			if (parent == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(parent);
+			}
+		}
+	}
+
+	public void reset() {
+		bySql.clear();
+		statements = 0;
+		jdbcNanos = 0;
+	}
+
+	public int getStatements() {
+		return statements;
+	}
+
+	public long getJdbcMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(jdbcNanos);
+	}
+
+	/**
+	 * One line per distinct statement with its count and total time, most frequent
+	 * first, so an N+1 shows up at the top.
+	 */
+	public String summary() {
+		StringBuilder out = new StringBuilder();
+		bySql.entrySet().stream()
+				.sorted((a, b) -> Integer.compare(b.getValue().count, a.getValue().count))
+				.forEach(entry -> out.append(String.format("%n%5d x %6d ms  %s", entry.getValue().count,
+						TimeUnit.NANOSECONDS.toMillis(entry.getValue().nanos), entry.getKey())));
+		int remembered = bySql.values().stream().mapToInt(entry -> entry.count).sum();
+		if (remembered < statements) {
+			out.append(String.format("%n%5d x other statements", statements - remembered));
+		}
+		return out.toString();
+	}
+
+	private void add(String sql, long nanos) {
+		statements++;
+		jdbcNanos += nanos;
+		Entry entry = bySql.get(sql);
+		if (entry == null && bySql.size() < MAX_DISTINCT) {
+			entry = new Entry();
+			bySql.put(sql, entry);
+		}
+		if (entry != null) {
+			entry.count++;
+			entry.nanos += nanos;
+		}
+	}
+
+	private static class Entry {
+
+		private int count;
+
+		private long nanos;
+	}
+
+}
@@ -0,0 +1,456 @@
+package com.ecom.util;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ecom.model.Cart;
+import com.ecom.model.Category;
+import com.ecom.model.OrderAddress;
+import com.ecom.model.Product;
+import com.ecom.model.ProductOrder;
+import com.ecom.model.UserDtls;
+
+/**
+ * Bulk-loads a production-sized data set: categories of skewed size, products,
+ * users, open carts and several years of order history, with product popularity
+ * and buyer activity following Zipf distributions and more orders in recent
+ * months. Rows are built as the model entities and written with batched JDBC
+ * inserts, committed per batch, so millions of rows load in minutes; on MySQL
+ * add rewriteBatchedStatements=true to the URL so each batch is one statement.
+ *
+ * Rows are added to whatever is already there, and the same seed gives the same
+ * data set on an empty database.
+ */
+public class SyntheticDataGenerator {
+
+	private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+	private static final String[] CATEGORY_NAMES = { "Mobile", "Laptop", "Clothing", "Shoes", "Books", "Beauty",
+			"Kitchen", "Furniture", "Toys", "Sports", "Grocery", "Audio", "Camera", "Watch", "Tablet", "Gaming",
+			"Garden", "Tools", "Baby", "Pet", "Jewellery", "Stationery", "Music", "Automotive", "Health" };
+
+	private static final String[] FIRST_NAMES = { "Amine", "Sara", "Youssef", "Fatima", "Omar", "Khadija", "Mehdi",
+			"Imane", "Hamza", "Salma", "Adam", "Lina", "Ilyas", "Nour", "Anas", "Hiba" };
+
+	private static final String[] LAST_NAMES = { "Alaoui", "Bennani", "Idrissi", "Tazi", "Berrada", "Chraibi",
+			"El Amrani", "Fassi", "Naciri", "Ouazzani", "Sqalli", "Zniber" };
+
+	private static final String[][] CITIES = { { "Casablanca", "Casablanca-Settat", "20000" },
+			{ "Rabat", "Rabat-Sale-Kenitra", "10000" }, { "Marrakech", "Marrakech-Safi", "40000" },
+			{ "Fes", "Fes-Meknes", "30000" }, { "Tangier", "Tanger-Tetouan-Al Hoceima", "90000" },
+			{ "Agadir", "Souss-Massa", "80000" }, { "Oujda", "Oriental", "60000" } };
+
+	private static final String[] PAYMENT_TYPES = { "COD", "ONLINE" };
+
+	// orders this recent may still be anywhere in their life cycle, older ones are settled
+	private static final int OPEN_ORDER_DAYS = 14;
+
+	private final DataSource dataSource;
+
+	public SyntheticDataGenerator(DataSource dataSource) {
+		this.dataSource = dataSource;
+	}
+
+	/**
+	 * What to generate. Counts are rows to add; the exponents shape the Zipf
+	 * distributions (0 is uniform, around 1 is a typical long tail).
+	 */
+	public record Settings(int categories, int products, int users, int cartUsers, int orders, int years,
+			double categorySkew, double productSkew, double buyerSkew, String passwordHash, long seed,
+			int batchSize) {
+	}
+
+	public record Result(int categories, int products, int users, int carts, int orders, long millis) {
+	}
+
+	public Result generate(Settings settings) throws SQLException {
+		if ((settings.products() == 0 || settings.users() == 0) && (settings.orders() > 0 || settings.cartUsers() > 0)) {
+			throw new IllegalArgumentException("Carts and orders need at least one product and one user");
+		}
+		if (settings.products() > 0 && settings.categories() == 0) {
+			throw new IllegalArgumentException("Products need at least one category");
+		}
+		long start = System.currentTimeMillis();
+		Random random = new Random(settings.seed());
+		try (Connection connection = dataSource.getConnection()) {
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try {
+				String[] categories = insertCategories(connection, settings);
+				Catalog catalog = insertProducts(connection, settings, categories, random);
+				int[] users = insertUsers(connection, settings, random);
+				int carts = insertCarts(connection, settings, catalog, users, random);
+				insertOrders(connection, settings, catalog, users, random);
+
+				Result result = new Result(categories.length, catalog.ids.length, users.length, carts,
+						settings.orders(), System.currentTimeMillis() - start);
+				logger.info("Generated {}", result);
+				return result;
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		}
+	}
+
+	private String[] insertCategories(Connection connection, Settings settings) throws SQLException {
+		List<Category> rows = new ArrayList<>();
+		for (int i = 0; i < settings.categories(); i++) {
+			String name = i < CATEGORY_NAMES.length ? CATEGORY_NAMES[i] : "Category " + (i + 1);
+			rows.add(new Category(null, name, "default.jpg", true));
+		}
+		insert(connection, settings, "insert into category (name, image_name, is_active) values (?, ?, ?)", rows,
+				(ps, category) -> {
+					ps.setString(1, category.getName());
+					ps.setString(2, category.getImageName());
+					ps.setBoolean(3, category.getIsActive());
+				});
+		return rows.stream().map(Category::getName).toArray(String[]::new);
+	}
+
+	private Catalog insertProducts(Connection connection, Settings settings, String[] categories, Random random)
+			throws SQLException {
+		Zipf categorySize = new Zipf(categories.length, settings.categorySkew());
+		int[] ids = new int[settings.products()];
+		long[] prices = new long[settings.products()];
+		int count = 0;
+
+		List<Product> rows = new ArrayList<>(settings.batchSize());
+		for (int i = 0; i < settings.products(); i++) {
+			Product product = new Product();
+			String category = categories[categorySize.sample(random)];
+			// log-normal prices: mostly tens to hundreds, a few in the thousands
+			Money price = Money.ofCents(Math.round(Math.exp(Math.log(6000) + random.nextGaussian())) + 100);
+			int discount = random.nextInt(10) < 6 ? 0 : 5 * (1 + random.nextInt(10));
+			product.setTitle(category + " " + Long.toString(random.nextLong() & Long.MAX_VALUE, 36).substring(0, 6));
+			product.setDescription("Generated " + category.toLowerCase() + " product");
+			product.setCategory(category);
+			product.setPrice(price);
+			product.setDiscount(discount);
+			product.setDiscountPrice(price.percentOff(discount));
+			product.setStock(random.nextInt(10) == 0 ? 0 : random.nextInt(500));
+			product.setImage("default.jpg");
+			product.setIsActive(random.nextInt(20) != 0);
+			rows.add(product);
+			if (rows.size() == settings.batchSize() || i == settings.products() - 1) {
+				int[] keys = insert(connection, settings, "insert into product (title, description, category, price, "
+						+ "discount, discount_price, stock, image, is_active) values (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows,
+						(ps, p) -> {
+							ps.setString(1, p.getTitle());
+							ps.setString(2, p.getDescription());
+							ps.setString(3, p.getCategory());
+							ps.setBigDecimal(4, p.getPrice().toBigDecimal());
+							ps.setInt(5, p.getDiscount());
+							ps.setBigDecimal(6, p.getDiscountPrice().toBigDecimal());
+							ps.setInt(7, p.getStock());
+							ps.setString(8, p.getImage());
+							ps.setBoolean(9, p.getIsActive());
+						});
+				for (int k = 0; k < keys.length; k++) {
+					ids[count] = keys[k];
+					prices[count++] = rows.get(k).getDiscountPrice().cents();
+				}
+				rows.clear();
+			}
+		}
+		logger.info("Inserted {} products", count);
+		return new Catalog(ids, prices, new Zipf(ids.length, settings.productSkew()), permutation(ids.length, random));
+	}
+
+	private int[] insertUsers(Connection connection, Settings settings, Random random) throws SQLException {
+		int first = nextId(connection, "user_dtls");
+		int[] ids = new int[settings.users()];
+		int count = 0;
+
+		List<UserDtls> rows = new ArrayList<>(settings.batchSize());
+		for (int i = 0; i < settings.users(); i++) {
+			String[] city = CITIES[random.nextInt(CITIES.length)];
+			UserDtls user = new UserDtls();
+			user.setName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+					+ LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+			// numbered from the next id so emails stay unique when run again
+			user.setEmail("user" + (first + i) + "@example.com");
+			user.setMobileNumber("06" + (10000000 + random.nextInt(90000000)));
+			user.setAddress((1 + random.nextInt(200)) + " Rue " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+			user.setCity(city[0]);
+			user.setState(city[1]);
+			user.setPincode(city[2]);
+			user.setProfileImage("default.jpg");
+			user.setRole("ROLE_USER");
+			user.setPassword(settings.passwordHash());
+			user.setIsEnable(true);
+			user.setAccountNonLocked(true);
+			user.setFailedAttempt(0);
+			rows.add(user);
+			if (rows.size() == settings.batchSize() || i == settings.users() - 1) {
+				int[] keys = insert(connection, settings, "insert into user_dtls (name, email, mobile_number, address, "
+						+ "city, state, pincode, profile_image, role, password, is_enable, account_non_locked, "
+						+ "failed_attempt) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows, (ps, u) -> {
+							ps.setString(1, u.getName());
+							ps.setString(2, u.getEmail());
+							ps.setString(3, u.getMobileNumber());
+							ps.setString(4, u.getAddress());
+							ps.setString(5, u.getCity());
+							ps.setString(6, u.getState());
+							ps.setString(7, u.getPincode());
+							ps.setString(8, u.getProfileImage());
+							ps.setString(9, u.getRole());
+							ps.setString(10, u.getPassword());
+							ps.setBoolean(11, u.getIsEnable());
+							ps.setBoolean(12, u.getAccountNonLocked());
+							ps.setInt(13, u.getFailedAttempt());
+						});
+				System.arraycopy(keys, 0, ids, count, keys.length);
+				count += keys.length;
+				rows.clear();
+			}
+		}
+		logger.info("Inserted {} users", count);
+		return ids;
+	}
+
+	private int insertCarts(Connection connection, Settings settings, Catalog catalog, int[] users, Random random)
+			throws SQLException {
+		int count = 0;
+		List<Cart> rows = new ArrayList<>(settings.batchSize());
+		int cartUsers = Math.min(settings.cartUsers(), users.length);
+		// one cart per user and one row per product in it, as CartServiceImpl keeps them
+		int[] cartOwners = permutation(users.length, random);
+		Set<Integer> productIds = new HashSet<>();
+		for (int i = 0; i < cartUsers; i++) {
+			UserDtls user = new UserDtls();
+			user.setId(users[cartOwners[i]]);
+			int items = 1 + random.nextInt(4);
+			productIds.clear();
+			// popular products come up again and again, give up on a slot after a few draws
+			for (int attempt = 0; productIds.size() < items && attempt < items * 10; attempt++) {
+				productIds.add(catalog.sample(random));
+			}
+			for (Integer productId : productIds) {
+				Product product = new Product();
+				product.setId(productId);
+				Cart cart = new Cart();
+				cart.setUser(user);
+				cart.setProduct(product);
+				cart.setQuantity(1 + random.nextInt(3));
+				rows.add(cart);
+			}
+			if (rows.size() >= settings.batchSize() || i == cartUsers - 1) {
+				count += insert(connection, settings, "insert into cart (user_id, product_id, quantity) values (?, ?, ?)",
+						rows, (ps, c) -> {
+							ps.setInt(1, c.getUser().getId());
+							ps.setInt(2, c.getProduct().getId());
+							ps.setInt(3, c.getQuantity());
+						}).length;
+				rows.clear();
+			}
+		}
+		logger.info("Inserted {} cart rows", count);
+		return count;
+	}
+
+	private void insertOrders(Connection connection, Settings settings, Catalog catalog, int[] users, Random random)
+			throws SQLException {
+		Zipf buyers = new Zipf(users.length, settings.buyerSkew());
+		int[] buyerRanks = permutation(users.length, random);
+		LocalDate today = LocalDate.now();
+		int days = Math.max(1, settings.years() * 365);
+
+		List<ProductOrder> rows = new ArrayList<>(settings.batchSize());
+		for (int i = 0; i < settings.orders(); i++) {
+			String[] city = CITIES[random.nextInt(CITIES.length)];
+			OrderAddress address = new OrderAddress();
+			address.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+			address.setLastName(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+			address.setEmail("buyer" + random.nextInt(1_000_000) + "@example.com");
+			address.setMobileNo("06" + (10000000 + random.nextInt(90000000)));
+			address.setAddress((1 + random.nextInt(200)) + " Avenue " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+			address.setCity(city[0]);
+			address.setState(city[1]);
+			address.setPincode(city[2]);
+
+			UserDtls user = new UserDtls();
+			user.setId(users[buyerRanks[buyers.sample(random)]]);
+			Product product = new Product();
+			int index = catalog.sampleIndex(random);
+			product.setId(catalog.ids[index]);
+
+			// sqrt skews towards the end of the range: order volume grows over the years
+			int daysAgo = (int) (days * (1 - Math.sqrt(random.nextDouble())));
+			ProductOrder order = new ProductOrder();
+			order.setOrderId(new UUID(random.nextLong(), random.nextLong()).toString());
+			order.setOrderDate(today.minusDays(daysAgo));
+			order.setProduct(product);
+			order.setUser(user);
+			order.setQuantity(random.nextInt(10) < 7 ? 1 : 2 + random.nextInt(3));
+			// unit price, as OrderServiceImpl records it
+			order.setPrice(Money.ofCents(catalog.prices[index]));
+			order.setStatus(status(daysAgo, random).getName());
+			order.setPaymentType(PAYMENT_TYPES[random.nextInt(PAYMENT_TYPES.length)]);
+			order.setOrderAddress(address);
+			rows.add(order);
+
+			if (rows.size() == settings.batchSize() || i == settings.orders() - 1) {
+				int[] addressIds = insert(connection, settings, "insert into order_address (first_name, last_name, "
+						+ "email, mobile_no, address, city, state, pincode) values (?, ?, ?, ?, ?, ?, ?, ?)",
+						rows.stream().map(ProductOrder::getOrderAddress).toList(), (ps, a) -> {
+							ps.setString(1, a.getFirstName());
+							ps.setString(2, a.getLastName());
+							ps.setString(3, a.getEmail());
+							ps.setString(4, a.getMobileNo());
+							ps.setString(5, a.getAddress());
+							ps.setString(6, a.getCity());
+							ps.setString(7, a.getState());
+							ps.setString(8, a.getPincode());
+						});
+				for (int k = 0; k < addressIds.length; k++) {
+					rows.get(k).getOrderAddress().setId(addressIds[k]);
+				}
+				insert(connection, settings, "insert into product_order (order_id, order_date, product_id, price, "
+						+ "quantity, user_id, status, payment_type, order_address_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+						rows, (ps, o) -> {
+							ps.setString(1, o.getOrderId());
+							ps.setDate(2, Date.valueOf(o.getOrderDate()));
+							ps.setInt(3, o.getProduct().getId());
+							ps.setBigDecimal(4, o.getPrice().toBigDecimal());
+							ps.setInt(5, o.getQuantity());
+							ps.setInt(6, o.getUser().getId());
+							ps.setString(7, o.getStatus());
+							ps.setString(8, o.getPaymentType());
+							ps.setInt(9, o.getOrderAddress().getId());
+						});
+				rows.clear();
+				if ((i + 1) % (settings.batchSize() * 100) == 0) {
+					logger.info("Inserted {} of {} orders", i + 1, settings.orders());
+				}
+			}
+		}
+		logger.info("Inserted {} orders", settings.orders());
+	}
+
+	private OrderStatus status(int daysAgo, Random random) {
+		int roll = random.nextInt(100);
+		if (daysAgo > OPEN_ORDER_DAYS) {
+			return roll < 92 ? OrderStatus.DELIVERED : OrderStatus.CANCEL;
+		}
+		if (roll < 5) {
+			return OrderStatus.CANCEL;
+		}
+		OrderStatus[] open = { OrderStatus.IN_PROGRESS, OrderStatus.ORDER_RECEIVED, OrderStatus.PRODUCT_PACKED,
+				OrderStatus.OUT_FOR_DELIVERY, OrderStatus.DELIVERED };
+		// the older the order, the further along it can be
+		int step = random.nextInt(1 + daysAgo * (open.length - 1) / OPEN_ORDER_DAYS);
+		return open[step];
+	}
+
+	/**
+	 * Inserts the rows as one or more JDBC batches, commits, and returns the
+	 * generated ids in row order.
+	 */
+	private <T> int[] insert(Connection connection, Settings settings, String sql, List<T> rows, Binder<T> binder)
+			throws SQLException {
+		int[] ids = new int[rows.size()];
+		int count = 0;
+		try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+			for (int i = 0; i < rows.size(); i++) {
+				binder.bind(ps, rows.get(i));
+				ps.addBatch();
+				if ((i + 1) % settings.batchSize() == 0 || i == rows.size() - 1) {
+					ps.executeBatch();
+					try (ResultSet keys = ps.getGeneratedKeys()) {
+						while (keys.next()) {
+							ids[count++] = keys.getInt(1);
+						}
+					}
+				}
+			}
+		}
+		connection.commit();
+		if (count != rows.size()) {
+			throw new IllegalStateException("Expected " + rows.size() + " generated keys but got " + count);
+		}
+		return ids;
+	}
+
+	private int nextId(Connection connection, String table) throws SQLException {
+		try (Statement statement = connection.createStatement();
+				ResultSet rs = statement.executeQuery("select coalesce(max(id), 0) + 1 from " + table)) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+
+	// random rank -> index mapping, so popularity is not tied to insertion order or category
+	private static int[] permutation(int size, Random random) {
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		for (int i = size - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = order[i];
+			order[i] = order[j];
+			order[j] = swap;
+		}
+		return order;
+	}
+
+	@FunctionalInterface
+	private interface Binder<T> {
+		void bind(PreparedStatement ps, T row) throws SQLException;
+	}
+
+	private record Catalog(int[] ids, long[] prices, Zipf popularity, int[] ranks) {
+
+		int sampleIndex(Random random) {
+			return ranks[popularity.sample(random)];
+		}
+
+		int sample(Random random) {
+			return ids[sampleIndex(random)];
+		}
+	}
+
+	/**
+	 * Zipf distribution over ranks 0..n-1, P(k) proportional to 1 / (k + 1)^s,
+	 * sampled by binary search over the cumulative distribution.
+	 */
+	static class Zipf {
+
+		private final double[] cumulative;
+
+		Zipf(int n, double exponent) {
+			cumulative = new double[n];
+			double sum = 0;
+			for (int k = 0; k < n; k++) {
+				sum += 1 / Math.pow(k + 1, exponent);
+				cumulative[k] = sum;
+			}
+			for (int k = 0; k < n; k++) {
+				cumulative[k] /= sum;
+			}
+		}
+
+		int sample(Random random) {
+			int index = Arrays.binarySearch(cumulative, random.nextDouble());
+			return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+		}
+	}
+
+}
@@ -0,0 +1,15 @@
+-- Schema as Hibernate generated it with ddl-auto=update (MySQL 8), including its constraint
+-- names, so databases created that way are baselined at this version instead of re-created.
+
+create table cart (id integer not null auto_increment, product_id integer, quantity integer, user_id integer, primary key (id)) engine=InnoDB;
+create table category (id integer not null auto_increment, is_active bit, image_name varchar(255), name varchar(255), primary key (id)) engine=InnoDB;
+create table order_address (id integer not null auto_increment, address varchar(255), city varchar(255), email varchar(255), first_name varchar(255), last_name varchar(255), mobile_no varchar(255), pincode varchar(255), state varchar(255), primary key (id)) engine=InnoDB;
+create table product (discount integer not null, discount_price float(53), id integer not null auto_increment, is_active bit, price float(53), stock integer not null, title varchar(500), description varchar(5000), category varchar(255), image varchar(255), primary key (id)) engine=InnoDB;
+create table product_order (id integer not null auto_increment, order_address_id integer, order_date date, price float(53), product_id integer, quantity integer, user_id integer, order_id varchar(255), payment_type varchar(255), status varchar(255), primary key (id)) engine=InnoDB;
+create table user_dtls (account_non_locked bit, failed_attempt integer, id integer not null auto_increment, is_enable bit, lock_time datetime(6), address varchar(255), city varchar(255), email varchar(255), mobile_number varchar(255), name varchar(255), password varchar(255), pincode varchar(255), profile_image varchar(255), role varchar(255), state varchar(255), primary key (id)) engine=InnoDB;
+alter table product_order add constraint UK_qcdbxaeuc7c5gahwh0dutg04r unique (order_address_id);
+alter table cart add constraint FK3d704slv66tw6x5hmbm6p2x3u foreign key (product_id) references product (id);
+alter table cart add constraint FK9x4wn098i53ikun1ynxet2ynj foreign key (user_id) references user_dtls (id);
+alter table product_order add constraint FK8frxalwc79tpxo7hgqp3hsjck foreign key (order_address_id) references order_address (id);
+alter table product_order add constraint FKh73acsd9s5wp6l0e55td6jr1m foreign key (product_id) references product (id);
+alter table product_order add constraint FK4f2ycr32kigtux5ag3tv0xu5m foreign key (user_id) references user_dtls (id);
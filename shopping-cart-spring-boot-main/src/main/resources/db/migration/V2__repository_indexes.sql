@@ -0,0 +1,27 @@
+-- One index per repository finder. Keep the @Table(indexes) on the entities in step.
+-- cart.user_id and product_order.user_id are already covered by the indexes backing
+-- their foreign keys; the title/category "containing" searches use leading wildcards
+-- and cannot use a B-tree index.
+
+-- UserRepository.findByEmail, existsByEmail
+create unique index uk_user_dtls_email on user_dtls (email);
+-- UserRepository.findByAccountNonLockedFalse
+create index idx_user_dtls_account_non_locked on user_dtls (account_non_locked);
+-- UserRepository.findUserSummaries, searchUserSummaries: keyset pages of one role in id order
+create index idx_user_dtls_role_id on user_dtls (role, id);
+
+-- CartRepository.findByProductIdAndUserId, countByUserId, findByUserId
+create index idx_cart_user_product on cart (user_id, product_id);
+
+-- ProductOrderRepository.findByOrderId
+create unique index uk_product_order_order_id on product_order (order_id);
+
+-- ProductRepository.findByIsActiveTrue, paged in id order
+create index idx_product_active_id on product (is_active, id);
+-- ProductRepository.findByCategory
+create index idx_product_category on product (category);
+
+-- CategoryRepository.findByIsActiveTrue
+create index idx_category_active on category (is_active);
+-- CategoryRepository.existsByName
+create index idx_category_name on category (name);
@@ -0,0 +1,6 @@
+-- Prices were float(53); amounts are now exact cents (see Money), stored as decimals.
+-- Existing values are rounded half up to the cent.
+
+alter table product modify column price decimal(12,2);
+alter table product modify column discount_price decimal(12,2);
+alter table product_order modify column price decimal(12,2);
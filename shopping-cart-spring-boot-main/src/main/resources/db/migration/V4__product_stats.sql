@@ -0,0 +1,5 @@
+-- Running totals of product views and add-to-cart clicks, written in batches by
+-- ProductStatsServiceImpl. No foreign key to product: rows of deleted products are
+-- harmless, and a flush must never fail because a product went away in between.
+
+create table product_stats (product_id integer not null, views bigint not null, cart_adds bigint not null, primary key (product_id)) engine=InnoDB;
@@ -0,0 +1,10 @@
+-- Discount campaigns (see CampaignServiceImpl). A product taken over by a running
+-- campaign records it in campaign_id and keeps its own discount in base_discount,
+-- which is restored when the campaign ends.
+
+create table discount_campaign (id integer not null auto_increment, name varchar(255), category varchar(255), percent_off integer not null, starts_at datetime(6) not null, ends_at datetime(6) not null, status varchar(20) not null, products integer, primary key (id)) engine=InnoDB;
+create index idx_discount_campaign_status on discount_campaign (status, starts_at);
+
+alter table product add column campaign_id integer;
+alter table product add column base_discount integer;
+create index idx_product_campaign on product (campaign_id);
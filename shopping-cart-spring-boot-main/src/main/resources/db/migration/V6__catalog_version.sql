@@ -0,0 +1,6 @@
+-- Catalog version shared by all application nodes (see CatalogVersion). Every write
+-- to products or categories bumps it, and each node drops its cached catalog when
+-- it sees the version move.
+
+create table catalog_version (id integer not null, version bigint not null, last_modified bigint not null, primary key (id)) engine=InnoDB;
+insert into catalog_version (id, version, last_modified) values (1, 0, 0);
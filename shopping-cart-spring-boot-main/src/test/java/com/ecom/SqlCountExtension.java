@@ -0,0 +1,60 @@
+package com.ecom;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+
+import com.ecom.util.SqlStatementStats;
+
+/**
+ * Counts the SQL statements run on the test thread during each test, which with
+ * MockMvc covers the requests it performs. Register it with @RegisterExtension and
+ * assert after the calls under test:
+ *
+ * <pre>
+ * mockMvc.perform(get("/products"));
+ * sql.assertStatements(2);
+ * </pre>
+ *
+ * A failed assertion lists the statements that ran.
+ */
+public class SqlCountExtension implements BeforeEachCallback, AfterEachCallback {
+
+	private SqlStatementStats stats;
+
+	@Override
+	public void beforeEach(ExtensionContext context) {
+		stats = SqlStatementStats.open();
+	}
+
+	@Override
+	public void afterEach(ExtensionContext context) {
+		stats.close();
+		stats = null;
+	}
+
+	// forget what has run so far, e.g. after setting up data
+	public void reset() {
+		stats.reset();
+	}
+
+	public int getStatements() {
+		return stats.getStatements();
+	}
+
+	public void assertStatements(int expected) {
+		if (stats.getStatements() != expected) {
+			throw new AssertionFailedError("Expected " + expected + " SQL statements but " + stats.getStatements()
+					+ " ran:" + stats.summary(), expected, stats.getStatements());
+		}
+	}
+
+	public void assertAtMostStatements(int max) {
+		if (stats.getStatements() > max) {
+			throw new AssertionFailedError("Expected at most " + max + " SQL statements but " + stats.getStatements()
+					+ " ran:" + stats.summary());
+		}
+	}
+
+}
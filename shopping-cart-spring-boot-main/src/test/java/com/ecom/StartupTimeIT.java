@@ -0,0 +1,154 @@
+package com.ecom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts the packaged application in a fresh JVM per run and measures the time
+ * from launch to the first answered storefront page, and then to the first API
+ * response: with the default configuration, with the prod profile, and with the
+ * prod profile on the AOT processed context and the CDS archive. Each
+ * configuration runs -Dstartup.runs times (default 3) and the median is logged.
+ * The CDS run uses -Xshare:on, so it fails instead of silently starting without
+ * the archive.
+ *
+ * Needs the jar, its libraries and the archive from {@code mvn package -Pprod},
+ * so failsafe runs it with {@code mvn verify -Pprod}; logs of every run are kept
+ * in target/startup-reports.
+ */
+class StartupTimeIT {
+
+	private static final Logger logger = LoggerFactory.getLogger(StartupTimeIT.class);
+
+	private static final int RUNS = Integer.getInteger("startup.runs", 3);
+
+	private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+	private final Path jar = Path.of(System.getProperty("startup.jar", "target/Shopping_Cart-0.0.1-SNAPSHOT.jar"));
+
+	private final Path cds = Path.of(System.getProperty("startup.cds", "target/cds"));
+
+	private final Path reports = Path.of(System.getProperty("startup.reports", "target/startup-reports"));
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+	@Test
+	void measureStartup() throws Exception {
+		assertThat(jar).as("run mvn verify -Pprod").exists();
+		assertThat(cds.resolve("lib")).isDirectory();
+		assertThat(cds.resolve("application.jsa")).exists();
+		Files.createDirectories(reports);
+
+		List<Measurement> measurements = new ArrayList<>();
+		measurements.add(measure("default"));
+		measurements.add(measure("prod", "-Dspring.profiles.active=prod"));
+		measurements.add(measure("prod-aot-cds", "-Xshare:on",
+				"-XX:SharedArchiveFile=" + cds.resolve("application.jsa").toAbsolutePath(), "-Dspring.aot.enabled=true",
+				"-Dspring.profiles.active=prod"));
+
+		StringBuilder table = new StringBuilder(String.format("%n%-13s %5s %14s %14s", "configuration", "runs",
+				"first page ms", "first api ms"));
+		for (Measurement measurement : measurements) {
+			table.append(String.format("%n%-13s %5d %14d %14d", measurement.name(), RUNS, measurement.firstPage(),
+					measurement.firstApi()));
+		}
+		logger.info("Startup, median of fresh JVMs:{}", table);
+	}
+
+	private Measurement measure(String name, String... jvmArguments) throws Exception {
+		long[] firstPage = new long[RUNS];
+		long[] firstApi = new long[RUNS];
+		for (int run = 0; run < RUNS; run++) {
+			long[] times = launch(name + "-" + run, jvmArguments);
+			firstPage[run] = times[0];
+			firstApi[run] = times[1];
+		}
+		return new Measurement(name, median(firstPage), median(firstApi));
+	}
+
+	// launch to the first 200 on /, then to the first 200 on /api/products, in ms
+	private long[] launch(String name, String... jvmArguments) throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(Arrays.asList(jvmArguments));
+		command.addAll(List.of("-cp", jar.toAbsolutePath() + File.pathSeparator + cds.resolve("lib").toAbsolutePath()
+				+ File.separator + "*", ShoppingCartApplication.class.getName(), "--server.port=" + port,
+				"--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DB_CLOSE_DELAY=-1",
+				"--spring.datasource.driver-class-name=org.h2.Driver", "--spring.datasource.username=sa",
+				"--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+				"--spring.jpa.show-sql=false"));
+
+		// a directory of its own, so uploads and the like stay out of the project
+		Path workDir = Files.createTempDirectory("startup-" + name);
+		Path log = reports.resolve(name + ".log").toAbsolutePath();
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command).directory(workDir.toFile()).redirectErrorStream(true)
+				.redirectOutput(log.toFile()).start();
+		try {
+			URI page = URI.create("http://localhost:" + port + "/");
+			while (!answers(page)) {
+				if (!process.isAlive()) {
+					fail(name + " exited with " + process.exitValue() + ", see " + log);
+				}
+				if (System.nanoTime() - start > TIMEOUT.toNanos()) {
+					fail(name + " did not answer within " + TIMEOUT + ", see " + log);
+				}
+				Thread.sleep(20);
+			}
+			long firstPage = elapsed(start);
+			assertThat(answers(URI.create("http://localhost:" + port + "/api/products"))).isTrue();
+			return new long[] { firstPage, elapsed(start) };
+		} finally {
+			process.destroy();
+			process.onExit().get();
+		}
+	}
+
+	private boolean answers(URI uri) throws InterruptedException {
+		try {
+			HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).timeout(TIMEOUT).build(),
+					HttpResponse.BodyHandlers.discarding());
+			assertThat(response.statusCode()).as(uri.toString()).isEqualTo(200);
+			return true;
+		} catch (IOException e) {
+			// not listening yet
+			return false;
+		}
+	}
+
+	private long elapsed(long start) {
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+
+	private static long median(long[] values) {
+		long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2];
+	}
+
+	private record Measurement(String name, long firstPage, long firstApi) {
+	}
+
+}
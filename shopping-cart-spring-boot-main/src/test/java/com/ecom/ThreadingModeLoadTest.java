@@ -0,0 +1,168 @@
+package com.ecom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.ecom.model.Product;
+import com.ecom.repository.ProductRepository;
+import com.ecom.util.Money;
+
+/**
+ * Starts the application once on platform threads and once on virtual threads and
+ * drives the same catalog endpoints with a fixed number of concurrent clients,
+ * printing throughput and latency percentiles for both. Run with
+ * {@code mvn test -Pload}; -Dload.clients and -Dload.seconds change the load.
+ */
+@Tag("load")
+class ThreadingModeLoadTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(ThreadingModeLoadTest.class);
+
+	private static final int CLIENTS = Integer.getInteger("load.clients", 200);
+
+	private static final int SECONDS = Integer.getInteger("load.seconds", 20);
+
+	@Test
+	void comparePlatformAndVirtualThreads() throws Exception {
+		List<Result> results = new ArrayList<>();
+		results.add(run("platform", false));
+		if (Runtime.version().feature() >= 21) {
+			results.add(run("virtual", true));
+		} else {
+			logger.info("Virtual threads need Java 21+, running on {}: platform only", Runtime.version());
+		}
+
+		StringBuilder table = new StringBuilder(String.format("%n%-9s %8s %10s %8s %8s %8s %8s %7s", "mode", "clients",
+				"req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors"));
+		for (Result result : results) {
+			table.append(String.format("%n%-9s %8d %10.1f %8.2f %8.2f %8.2f %8.2f %7d", result.mode(), CLIENTS,
+					result.throughput(), result.percentile(50), result.percentile(90), result.percentile(99),
+					result.percentile(100), result.errors()));
+		}
+		logger.info("Platform and virtual threads:{}", table);
+		for (Result result : results) {
+			assertThat(result.errors()).isLessThanOrEqualTo(result.latencies().length / 100);
+		}
+	}
+
+	private Result run(String mode, boolean virtual) throws Exception {
+		// command line arguments, so they win over application.properties
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(ShoppingCartApplication.class)
+				.run("--server.port=0", "--spring.threads.virtual.enabled=" + virtual,
+						"--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+						"--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+						"--logging.level." + ThreadingModeLoadTest.class.getName() + "=INFO");
+		try {
+			seed(context.getBean(ProductRepository.class));
+			int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+			List<URI> uris = List.of(URI.create("http://localhost:" + port + "/api/products?page=0&size=12"),
+					URI.create("http://localhost:" + port + "/api/products?category=Laptop&page=1&size=12"),
+					URI.create("http://localhost:" + port + "/api/products/1"),
+					URI.create("http://localhost:" + port + "/api/products/search?query=Item%2042"));
+
+			// warm up the JIT and the connection pool before measuring
+			drive(uris, Math.min(CLIENTS, 20), Duration.ofSeconds(3));
+			return drive(uris, CLIENTS, Duration.ofSeconds(SECONDS)).withMode(mode);
+		} finally {
+			context.close();
+		}
+	}
+
+	private Result drive(List<URI> uris, int clients, Duration duration) throws Exception {
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		AtomicLong errors = new AtomicLong();
+		long end = System.nanoTime() + duration.toNanos();
+
+		ExecutorService executor = Executors.newFixedThreadPool(clients);
+		List<Future<long[]>> futures = new ArrayList<>();
+		for (int i = 0; i < clients; i++) {
+			int offset = i;
+			futures.add(executor.submit(() -> {
+				long[] latencies = new long[1024];
+				int count = 0;
+				while (System.nanoTime() < end) {
+					HttpRequest request = HttpRequest.newBuilder(uris.get((offset + count) % uris.size()))
+							.timeout(Duration.ofSeconds(10)).build();
+					long start = System.nanoTime();
+					try {
+						HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+						if (response.statusCode() != 200) {
+							errors.incrementAndGet();
+						}
+					} catch (Exception e) {
+						errors.incrementAndGet();
+					}
+					if (count == latencies.length) {
+						latencies = Arrays.copyOf(latencies, count * 2);
+					}
+					latencies[count++] = System.nanoTime() - start;
+				}
+				return Arrays.copyOf(latencies, count);
+			}));
+		}
+
+		long[] all = new long[0];
+		for (Future<long[]> future : futures) {
+			long[] latencies = future.get();
+			int length = all.length;
+			all = Arrays.copyOf(all, length + latencies.length);
+			System.arraycopy(latencies, 0, all, length, latencies.length);
+		}
+		executor.shutdown();
+		Arrays.sort(all);
+		return new Result(null, all, errors.get(), all.length / (double) duration.toSeconds());
+	}
+
+	private void seed(ProductRepository productRepository) {
+		List<Product> products = new ArrayList<>();
+		for (int i = 1; i <= 500; i++) {
+			Product product = new Product();
+			product.setTitle("Item " + i);
+			product.setDescription("Load test item " + i);
+			product.setCategory(i % 2 == 0 ? "Laptop" : "Mobile");
+			product.setPrice(Money.of(100.0 + i));
+			product.setDiscountPrice(Money.of(100.0 + i));
+			product.setStock(10);
+			product.setImage("default.jpg");
+			product.setIsActive(true);
+			products.add(product);
+		}
+		productRepository.saveAll(products);
+	}
+
+	private record Result(String mode, long[] latencies, long errors, double throughput) {
+
+		Result withMode(String mode) {
+			return new Result(mode, latencies, errors, throughput);
+		}
+
+		double percentile(double percentile) {
+			if (latencies.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+			return latencies[Math.max(0, Math.min(index, latencies.length - 1))] / 1_000_000.0;
+		}
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.ecom.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.ecom.model.Category;
+import com.ecom.service.CartService;
+import com.ecom.service.CategoryService;
+
+/**
+ * Two H2 databases stand in for a primary and its replica. Each is filled
+ * directly, so which one answered shows where a call was routed; nothing
+ * replicates between them, like a replica that is far behind.
+ */
+// a primary of its own, as every test wipes both databases
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"app.datasource.replica.url=jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"app.datasource.replica.read-your-writes=10s" })
+class ReadReplicaRoutingTest {
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primaryDataSource;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replicaDataSource;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private CartService cartService;
+
+	private JdbcTemplate primary;
+
+	private JdbcTemplate replica;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		new SchemaMigrator(replicaDataSource, "classpath:db/migration", true).migrate();
+		primary = new JdbcTemplate(primaryDataSource);
+		replica = new JdbcTemplate(replicaDataSource);
+		for (JdbcTemplate database : List.of(primary, replica)) {
+			database.update("delete from cart");
+			database.update("delete from product");
+			database.update("delete from category");
+			database.update("delete from user_dtls");
+		}
+	}
+
+	@AfterEach
+	void clearUser() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readOnlyServiceCallsReadFromTheReplica() {
+		primary.update("insert into category (name, image_name, is_active) values ('OnPrimary', 'default.jpg', true)");
+		replica.update("insert into category (name, image_name, is_active) values ('OnReplica', 'default.jpg', true)");
+
+		assertThat(categoryService.getAllCategory()).extracting(Category::getName).containsExactly("OnReplica");
+	}
+
+	@Test
+	void writesGoToThePrimary() {
+		Category category = new Category(null, "Written", "default.jpg", true);
+		categoryService.saveCategory(category);
+
+		assertThat(primary.queryForList("select name from category", String.class)).containsExactly("Written");
+		assertThat(replica.queryForList("select name from category", String.class)).isEmpty();
+	}
+
+	@Test
+	void usersReadTheirOwnWritesFromThePrimary() {
+		for (JdbcTemplate database : List.of(primary, replica)) {
+			database.update("insert into user_dtls (id, name, email, role) values (1, 'A', 'a@example.com', 'ROLE_USER')");
+			database.update("insert into user_dtls (id, name, email, role) values (2, 'B', 'b@example.com', 'ROLE_USER')");
+			database.update("insert into product (id, title, price, discount, discount_price, stock, is_active) "
+					+ "values (1, 'Laptop', 100, 0, 100, 5, true)");
+		}
+
+		signIn("a@example.com");
+		cartService.saveCart(1, 1);
+		assertThat(cartService.getCartsByUser(1)).hasSize(1);
+
+		// another user has not written, so reads from the lagging replica
+		signIn("b@example.com");
+		assertThat(cartService.getCartsByUser(1)).isEmpty();
+	}
+
+	private void signIn(String email) {
+		SecurityContextHolder.getContext()
+				.setAuthentication(new UsernamePasswordAuthenticationToken(email, null, List.of()));
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.ecom.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+/**
+ * The application starts on a database built only by the migrations, with
+ * Hibernate validating the entity mapping against it, and the migrated schema has
+ * the indexes the repository finders rely on.
+ */
+@SpringBootTest
+class SchemaMigrationTest {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void allMigrationsAreApplied() {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		assertThat(jdbcTemplate.queryForList("select version from schema_version order by version", Integer.class))
+				.containsExactly(1, 2, 3, 4, 5, 6);
+	}
+
+	@Test
+	void repositoryFindersHaveIndexes() throws Exception {
+		assertThat(indexes("USER_DTLS")).contains("UK_USER_DTLS_EMAIL", "IDX_USER_DTLS_ACCOUNT_NON_LOCKED",
+				"IDX_USER_DTLS_ROLE_ID");
+		assertThat(indexes("CART")).contains("IDX_CART_USER_PRODUCT");
+		assertThat(indexes("PRODUCT_ORDER")).contains("UK_PRODUCT_ORDER_ORDER_ID");
+		assertThat(indexes("PRODUCT")).contains("IDX_PRODUCT_ACTIVE_ID", "IDX_PRODUCT_CATEGORY", "IDX_PRODUCT_CAMPAIGN");
+		assertThat(indexes("CATEGORY")).contains("IDX_CATEGORY_ACTIVE", "IDX_CATEGORY_NAME");
+	}
+
+	@Test
+	void schemaFromDdlAutoIsBaselined() throws Exception {
+		DataSource existing = new DriverManagerDataSource("jdbc:h2:mem:baseline;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+		try (Connection connection = existing.getConnection()) {
+			ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__baseline.sql"));
+		}
+
+		new SchemaMigrator(existing, "classpath:db/migration", true).migrate();
+
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(existing);
+		assertThat(jdbcTemplate.queryForList("select execution_time from schema_version order by version", Integer.class))
+				.hasSize(6).first().isEqualTo(0);
+		// the finder indexes come from V2, which a baselined database still runs
+		assertThat(indexes(existing, "USER_DTLS")).contains("IDX_USER_DTLS_ROLE_ID");
+	}
+
+	@Test
+	void changedMigrationStopsStartup() throws Exception {
+		DataSource database = new DriverManagerDataSource("jdbc:h2:mem:changed;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+		SchemaMigrator migrator = new SchemaMigrator(database, "classpath:db/migration", true);
+		migrator.migrate();
+		new JdbcTemplate(database).update("update schema_version set checksum = checksum + 1 where version = 2");
+
+		assertThatThrownBy(migrator::migrate).isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("V2__repository_indexes.sql");
+	}
+
+	private Set<String> indexes(String table) throws Exception {
+		return indexes(dataSource, table);
+	}
+
+	private Set<String> indexes(DataSource database, String table) throws Exception {
+		Set<String> names = new HashSet<>();
+		try (Connection connection = database.getConnection();
+				ResultSet rs = connection.getMetaData().getIndexInfo(null, null, table, false, false)) {
+			while (rs.next()) {
+				names.add(rs.getString("INDEX_NAME"));
+			}
+		}
+		return names;
+	}
+
+}
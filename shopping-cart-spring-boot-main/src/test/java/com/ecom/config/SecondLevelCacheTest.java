@@ -0,0 +1,120 @@
+package com.ecom.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ecom.SqlCountExtension;
+import com.ecom.model.Category;
+import com.ecom.model.Product;
+import com.ecom.service.CategoryService;
+import com.ecom.service.ProductService;
+import com.ecom.util.MetricsRegistry;
+import com.ecom.util.Money;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Repeated catalog reads are served from the second-level and query caches, and
+ * admin edits are visible on the next read.
+ */
+@SpringBootTest
+class SecondLevelCacheTest {
+
+	@RegisterExtension
+	SqlCountExtension sql = new SqlCountExtension();
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MetricsRegistry metricsRegistry;
+
+	@BeforeEach
+	void evict() {
+		entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+	}
+
+	@Test
+	void productEditIsReadBackAfterCaching() {
+		Product product = productService.saveProduct(product("Phone"));
+		productService.getProductById(product.getId());
+
+		sql.reset();
+		assertThat(productService.getProductById(product.getId()).getTitle()).isEqualTo("Phone");
+		sql.assertStatements(0);
+
+		product.setTitle("Phone 2");
+		productService.saveProduct(product);
+		assertThat(productService.getProductById(product.getId()).getTitle()).isEqualTo("Phone 2");
+	}
+
+	@Test
+	void activeCategoriesComeFromTheQueryCacheUntilOneIsAdded() {
+		categoryService.saveCategory(new Category(null, "Audio", "default.jpg", true));
+		int before = categoryService.getAllActiveCategory().size();
+
+		sql.reset();
+		categoryService.getAllActiveCategory();
+		sql.assertStatements(0);
+
+		categoryService.saveCategory(new Category(null, "Video", "default.jpg", true));
+		assertThat(categoryService.getAllActiveCategory()).hasSize(before + 1);
+	}
+
+	@Test
+	void regionsAreExposedAsMetrics() {
+		Product product = productService.saveProduct(product("Camera"));
+		productService.getProductById(product.getId());
+
+		assertThat(metricsRegistry.scrape())
+				.contains("hibernate_cache_region_requests_total{region=\"product\",result=\"hit\"}")
+				.contains("hibernate_cache_region_entries{region=\"product\"}");
+	}
+
+	@Test
+	void storageDropsUnusedAndExpiredEntries() throws Exception {
+		LocalCacheStorage bounded = new LocalCacheStorage("bounded", new LocalCacheStorage.Settings(2, Duration.ZERO));
+		bounded.putIntoCache(1, "a", null);
+		bounded.putIntoCache(2, "b", null);
+		bounded.getFromCache(1, null);
+		bounded.putIntoCache(3, "c", null);
+		assertThat(bounded.contains(1)).isTrue();
+		assertThat(bounded.contains(2)).isFalse();
+		assertThat(bounded.getEvictions()).isEqualTo(1);
+
+		LocalCacheStorage expiring = new LocalCacheStorage("expiring",
+				new LocalCacheStorage.Settings(10, Duration.ofMillis(1)));
+		expiring.putIntoCache(1, "a", null);
+		Thread.sleep(5);
+		assertThat(expiring.getFromCache(1, null)).isNull();
+	}
+
+	private Product product(String title) {
+		Product product = new Product();
+		product.setTitle(title);
+		product.setDescription(title);
+		product.setCategory("Audio");
+		product.setPrice(Money.of(10.0));
+		product.setDiscount(0);
+		product.setDiscountPrice(Money.of(10.0));
+		product.setStock(1);
+		product.setImage("default.jpg");
+		product.setIsActive(true);
+		return product;
+	}
+
+}
@@ -0,0 +1,144 @@
+package com.ecom.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.ecom.model.Product;
+import com.ecom.model.ProductOrder;
+import com.ecom.model.UserDtls;
+import com.ecom.repository.ProductRepository;
+import com.ecom.repository.UserRepository;
+import com.ecom.service.EventService;
+import com.ecom.service.ProductService;
+import com.ecom.util.JwtTokenUtil;
+import com.ecom.util.Money;
+
+/**
+ * Order status changes reach the owner's stream only, and stock changes reach
+ * the streams watching the product.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class EventStreamTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private EventService eventService;
+
+	@Autowired
+	private JwtTokenUtil jwtTokenUtil;
+
+	private UserDtls owner;
+
+	private UserDtls other;
+
+	private Product product;
+
+	@BeforeEach
+	void seed() {
+		owner = user("events-owner@example.com");
+		other = user("events-other@example.com");
+
+		product = new Product();
+		product.setTitle("Lamp");
+		product.setDescription("Lamp");
+		product.setCategory("Home");
+		product.setPrice(Money.of(20.0));
+		product.setDiscountPrice(Money.of(20.0));
+		product.setDiscount(0);
+		product.setStock(5);
+		product.setImage("default.jpg");
+		product.setIsActive(true);
+		product = productRepository.save(product);
+	}
+
+	@Test
+	void orderStatusGoesToTheOwnerAndStockToWatchers() throws Exception {
+		MockHttpServletResponse ownerStream = subscribe(owner, String.valueOf(product.getId()));
+		MockHttpServletResponse otherStream = subscribe(other, null);
+
+		ProductOrder order = new ProductOrder();
+		order.setId(41);
+		order.setOrderId("ORD-41");
+		order.setUser(owner);
+		order.setProduct(product);
+		order.setStatus("Out for Delivery");
+		eventService.publishOrderStatus(order);
+
+		product.setStock(0);
+		productService.saveProduct(product);
+
+		awaitContent(ownerStream, "event:stock");
+		assertThat(ownerStream.getContentAsString())
+				.contains("event:order-status\ndata:{\"id\":41,\"orderId\":\"ORD-41\"")
+				.contains("\"status\":\"Out for Delivery\"")
+				.contains("event:stock\ndata:{\"productId\":" + product.getId() + ",\"stock\":0}");
+		assertThat(otherStream.getContentAsString()).doesNotContain("event:");
+	}
+
+	@Test
+	void streamNeedsAToken() throws Exception {
+		mockMvc.perform(get("/api/user/events")).andExpect(status().isUnauthorized());
+	}
+
+	private MockHttpServletResponse subscribe(UserDtls user, String products) throws Exception {
+		var builder = get("/api/user/events").header(HttpHeaders.AUTHORIZATION,
+				"Bearer " + jwtTokenUtil.generateToken(user));
+		if (products != null) {
+			builder.param("products", products);
+		}
+		MockHttpServletResponse response = mockMvc.perform(builder).andExpect(request().asyncStarted())
+				.andReturn().getResponse();
+		awaitContent(response, ":connected");
+		return response;
+	}
+
+	private UserDtls user(String email) {
+		UserDtls user = userRepository.findByEmail(email);
+		if (user == null) {
+			user = new UserDtls();
+			user.setName(email);
+			user.setEmail(email);
+			user.setPassword("unused");
+			user.setRole("ROLE_USER");
+			user.setIsEnable(true);
+			user.setAccountNonLocked(true);
+			user.setFailedAttempt(0);
+			user.setProfileImage("default.jpg");
+			user = userRepository.save(user);
+		}
+		return user;
+	}
+
+	// events are written by the sender pool, not by the publishing thread
+	private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!response.getContentAsString().contains(expected) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(response.getContentAsString()).contains(expected);
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.ecom.controller;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * /metrics answers the scraper's bearer token or an admin, and nobody else, even
+ * from a loopback address as a request relayed by a local reverse proxy has.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MetricsAccessTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void scraperTokenOrAdminOnly() throws Exception {
+		mockMvc.perform(get("/metrics").header(HttpHeaders.AUTHORIZATION, "Bearer scrape-secret"))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/metrics").with(user("admin").roles("ADMIN"))).andExpect(status().isOk());
+
+		mockMvc.perform(get("/metrics").with(request -> {
+			request.setRemoteAddr("127.0.0.1");
+			return request;
+		})).andExpect(status().is3xxRedirection());
+		mockMvc.perform(get("/metrics").header(HttpHeaders.AUTHORIZATION, "Bearer wrong"))
+				.andExpect(status().is3xxRedirection());
+		mockMvc.perform(get("/metrics").with(user("user").roles("USER"))).andExpect(status().isForbidden());
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.ecom.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.ecom.model.UserDtls;
+import com.ecom.repository.UserRepository;
+
+/**
+ * The reset token reaches the account's mailbox only, as a link on the configured
+ * base URL, and that link completes the reset.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PasswordResetTest {
+
+	private static final Pattern LINK = Pattern.compile("https://shop\\.example\\.com/reset-password\\?token=(\\S+)");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@MockBean
+	private JavaMailSender mailSender;
+
+	@Test
+	void tokenIsMailedAndNotReturned() throws Exception {
+		UserDtls user = new UserDtls();
+		user.setName("Reset");
+		user.setEmail("reset@example.com");
+		user.setPassword(passwordEncoder.encode("old-password"));
+		user.setRole("ROLE_USER");
+		user.setIsEnable(true);
+		user.setAccountNonLocked(true);
+		user.setFailedAttempt(0);
+		user.setProfileImage("default.jpg");
+		userRepository.save(user);
+
+		String body = mockMvc.perform(post("/api/forgot-password").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"email\":\"reset@example.com\"}"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertThat(body).doesNotContain("token");
+
+		ArgumentCaptor<SimpleMailMessage> mail = ArgumentCaptor.forClass(SimpleMailMessage.class);
+		verify(mailSender).send(mail.capture());
+		assertThat(mail.getValue().getTo()).containsExactly("reset@example.com");
+		Matcher link = LINK.matcher(mail.getValue().getText());
+		assertThat(link.find()).isTrue();
+
+		mockMvc.perform(post("/api/reset-password").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"token\":\"" + link.group(1) + "\",\"newPassword\":\"new-password\"}"))
+				.andExpect(status().isOk());
+		assertThat(passwordEncoder.matches("new-password",
+				userRepository.findByEmail("reset@example.com").getPassword())).isTrue();
+	}
+
+	@Test
+	void unknownEmailIsRejected() throws Exception {
+		mockMvc.perform(post("/api/forgot-password").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"email\":\"nobody@example.com\"}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.token").doesNotExist());
+	}
+
+}
@@ -0,0 +1,178 @@
+package com.ecom.controller;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.ecom.SqlCountExtension;
+import com.ecom.model.Category;
+import com.ecom.model.Product;
+import com.ecom.model.UserDtls;
+import com.ecom.repository.CategoryRepository;
+import com.ecom.repository.ProductRepository;
+import com.ecom.repository.UserRepository;
+import com.ecom.util.JwtTokenUtil;
+import com.ecom.util.Money;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Pins the number of SQL statements behind the main pages and API calls, so an
+ * added lazy load or N+1 fails here instead of showing up in production.
+ */
+// every page is rendered, none comes from the page cache
+@SpringBootTest(properties = "app.page-cache.max-entries=0")
+@AutoConfigureMockMvc
+class QueryCountTest {
+
+	private static final String EMAIL = "query-count@example.com";
+
+	@RegisterExtension
+	SqlCountExtension sql = new SqlCountExtension();
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtTokenUtil jwtTokenUtil;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Product product;
+
+	private UserDtls user;
+
+	@BeforeEach
+	void seed() {
+		// the database is shared with other test classes, so seed once, keyed by this class's user
+		if (userRepository.findByEmail(EMAIL) == null) {
+			Category category = new Category();
+			category.setName("Laptop");
+			category.setImageName("default.jpg");
+			category.setIsActive(true);
+			categoryRepository.save(category);
+
+			for (int i = 1; i <= 10; i++) {
+				Product product = new Product();
+				product.setTitle("Laptop " + i);
+				product.setDescription("Laptop " + i);
+				product.setCategory("Laptop");
+				product.setPrice(Money.of(100.0 + i));
+				product.setDiscountPrice(Money.of(100.0 + i));
+				product.setDiscount(0);
+				product.setStock(10);
+				product.setImage("default.jpg");
+				product.setIsActive(true);
+				productRepository.save(product);
+			}
+
+			UserDtls user = new UserDtls();
+			user.setName("Query Count");
+			user.setEmail(EMAIL);
+			user.setPassword("unused");
+			user.setRole("ROLE_USER");
+			user.setIsEnable(true);
+			user.setAccountNonLocked(true);
+			user.setFailedAttempt(0);
+			user.setProfileImage("default.jpg");
+			userRepository.save(user);
+		}
+		product = productRepository.findByCategory("Laptop").get(0);
+		user = userRepository.findByEmail(EMAIL);
+		// counts are for a cold second-level cache, whatever ran before
+		entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+		sql.reset();
+	}
+
+	@Test
+	void homePage() throws Exception {
+		mockMvc.perform(get("/")).andExpect(status().isOk());
+		sql.assertStatements(2);
+	}
+
+	@Test
+	void productListing() throws Exception {
+		mockMvc.perform(get("/products").param("pageSize", "5")).andExpect(status().isOk());
+		sql.assertStatements(3);
+	}
+
+	@Test
+	void productPage() throws Exception {
+		mockMvc.perform(get("/product/{id}", product.getId())).andExpect(status().isOk());
+		sql.assertStatements(2);
+	}
+
+	@Test
+	void search() throws Exception {
+		mockMvc.perform(get("/search").param("ch", "Laptop")).andExpect(status().isOk());
+		sql.assertStatements(2);
+	}
+
+	@Test
+	void userCart() throws Exception {
+		mockMvc.perform(get("/user/cart").with(user(EMAIL).roles("USER"))).andExpect(status().isOk());
+		sql.assertStatements(5);
+	}
+
+	@Test
+	void userOrders() throws Exception {
+		mockMvc.perform(get("/user/user-orders").with(user(EMAIL).roles("USER"))).andExpect(status().isOk());
+		sql.assertStatements(5);
+	}
+
+	@Test
+	void apiProducts() throws Exception {
+		mockMvc.perform(get("/api/products").param("size", "5")).andExpect(status().isOk());
+		sql.assertStatements(2);
+	}
+
+	@Test
+	void apiProductsRevalidationRunsNoSql() throws Exception {
+		String etag = mockMvc.perform(get("/api/products")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		sql.reset();
+		mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		sql.assertStatements(0);
+	}
+
+	@Test
+	void apiProduct() throws Exception {
+		mockMvc.perform(get("/api/products/{id}", product.getId())).andExpect(status().isOk());
+		sql.assertStatements(1);
+	}
+
+	@Test
+	void apiCategories() throws Exception {
+		mockMvc.perform(get("/api/categories")).andExpect(status().isOk());
+		sql.assertStatements(1);
+	}
+
+	@Test
+	void apiUserCart() throws Exception {
+		mockMvc.perform(get("/api/user/cart")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtTokenUtil.generateToken(user)))
+				.andExpect(status().isOk());
+		sql.assertStatements(1);
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.ecom.load;
+
+/**
+ * Latency histogram in the style of HdrHistogram: microsecond values go into
+ * log-linear buckets (64 linear sub-buckets per power of two), so any recorded
+ * value is reported within 1.6% of its true value at a fixed memory cost, however
+ * long the run. Not thread safe: each client records into its own histogram and
+ * they are merged with add() at the end.
+ */
+class LatencyHistogram {
+
+	private static final int SUB_BUCKETS = 64;
+
+	// values below this are counted exactly
+	private static final int LINEAR = 2 * SUB_BUCKETS;
+
+	private final long[] counts = new long[LINEAR + 57 * SUB_BUCKETS];
+
+	private long count;
+
+	private long sum;
+
+	private long max;
+
+	void recordNanos(long nanos) {
+		long micros = Math.max(0, nanos / 1000);
+		counts[index(micros)]++;
+		count++;
+		sum += micros;
+		max = Math.max(max, micros);
+	}
+
+	void add(LatencyHistogram other) {
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+		count += other.count;
+		sum += other.sum;
+		max = Math.max(max, other.max);
+	}
+
+	long getCount() {
+		return count;
+	}
+
+	double getMeanMillis() {
+		return count == 0 ? 0 : sum / (double) count / 1000;
+	}
+
+	double getMaxMillis() {
+		return max / 1000.0;
+	}
+
+	/**
+	 * Highest value, in milliseconds, in the bucket holding the given percentile
+	 * (0-100), capped at the largest value recorded.
+	 */
+	double getPercentileMillis(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(highestEquivalent(i), max) / 1000.0;
+			}
+		}
+		return getMaxMillis();
+	}
+
+	private static int index(long micros) {
+		if (micros < LINEAR) {
+			return (int) micros;
+		}
+		// shift so that the value keeps its 7 most significant bits, 64..127
+		int shift = 63 - Long.numberOfLeadingZeros(micros) - 6;
+		return LINEAR + (shift - 1) * SUB_BUCKETS + (int) ((micros >>> shift) - SUB_BUCKETS);
+	}
+
+	private static long highestEquivalent(int index) {
+		if (index < LINEAR) {
+			return index;
+		}
+		int shift = (index - LINEAR) / SUB_BUCKETS + 1;
+		long subBucket = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+}
@@ -0,0 +1,350 @@
+package com.ecom.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.ecom.ShoppingCartApplication;
+import com.ecom.model.UserDtls;
+import com.ecom.repository.UserRepository;
+import com.ecom.util.JwtTokenUtil;
+import com.ecom.util.SyntheticDataGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Boots the application on an H2 database filled by SyntheticDataGenerator and
+ * drives a mixed shopper and admin workload from concurrent clients (virtual
+ * threads on Java 21+), then prints throughput and p50/p99/p99.9 per operation and writes the same figures
+ * as JSON to target/load-reports, named by time and commit, for comparison
+ * between builds. Run with {@code mvn test -Pload -Dtest=MixedWorkloadLoadTest};
+ * -Dload.clients, -Dload.seconds, -Dload.warmup-seconds, -Dload.products,
+ * -Dload.orders and -Dload.report-dir change the run.
+ */
+@Tag("load")
+class MixedWorkloadLoadTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(MixedWorkloadLoadTest.class);
+
+	private static final int CLIENTS = Integer.getInteger("load.clients", 200);
+
+	private static final int SECONDS = Integer.getInteger("load.seconds", 30);
+
+	private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 5);
+
+	private static final int PRODUCTS = Integer.getInteger("load.products", 2000);
+
+	private static final Path REPORT_DIR = Path.of(System.getProperty("load.report-dir", "target/load-reports"));
+
+	private static final int ORDERS = Integer.getInteger("load.orders", 50000);
+
+	// the first categories SyntheticDataGenerator creates
+	private static final String[] CATEGORIES = { "Mobile", "Laptop", "Clothing", "Shoes", "Books" };
+
+	// every tenth client is an admin paging through orders, the rest are shoppers
+	private static final int ADMIN_EVERY = 10;
+
+	private static final String ORDER_JSON = "{\"firstName\":\"Load\",\"lastName\":\"Test\",\"email\":\"load@example.com\","
+			+ "\"mobileNo\":\"0600000000\",\"address\":\"1 Main St\",\"city\":\"Casablanca\",\"state\":\"CS\","
+			+ "\"pincode\":\"20000\",\"paymentType\":\"COD\"}";
+
+	private enum Operation {
+		BROWSE(35), PRODUCT(20), SEARCH(15), ADD_TO_CART(15), VIEW_CART(10), CHECKOUT(5), ADMIN_ORDERS(0);
+
+		private final int weight;
+
+		Operation(int weight) {
+			this.weight = weight;
+		}
+	}
+
+	@Test
+	void mixedWorkload() throws Exception {
+		boolean virtual = Runtime.version().feature() >= 21;
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(ShoppingCartApplication.class)
+				.run("--server.port=0", "--spring.threads.virtual.enabled=" + virtual,
+						"--spring.datasource.url=jdbc:h2:mem:load-mixed;MODE=MySQL;DB_CLOSE_DELAY=-1",
+						"--logging.level.root=WARN",
+						"--logging.level." + MixedWorkloadLoadTest.class.getName() + "=INFO");
+		try {
+			List<String> tokens = seed(context);
+			String base = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+			HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+			drive(client, base, tokens, Duration.ofSeconds(WARMUP_SECONDS));
+			long start = System.nanoTime();
+			List<ClientResult> results = drive(client, base, tokens, Duration.ofSeconds(SECONDS));
+			double elapsed = (System.nanoTime() - start) / 1e9;
+
+			Map<String, Object> report = report(results, elapsed, virtual);
+			Path file = write(report);
+			logger.info("Report written to {}", file.toAbsolutePath());
+
+			@SuppressWarnings("unchecked")
+			Map<String, Object> total = (Map<String, Object>) report.get("total");
+			assertThat((long) total.get("errors")).isLessThanOrEqualTo((long) total.get("requests") / 100);
+		} finally {
+			context.close();
+		}
+	}
+
+	// catalog and order history, then one user per client; clients authenticate with tokens
+	private List<String> seed(ConfigurableApplicationContext context) throws Exception {
+		UserRepository userRepository = context.getBean(UserRepository.class);
+		JwtTokenUtil jwtTokenUtil = context.getBean(JwtTokenUtil.class);
+
+		new SyntheticDataGenerator(context.getBean(DataSource.class)).generate(new SyntheticDataGenerator.Settings(
+				CATEGORIES.length, PRODUCTS, PRODUCTS / 2, 0, ORDERS, 3, 1.1, 1.0, 0.8, "unused", 42, 1000));
+
+		List<UserDtls> users = new ArrayList<>();
+		for (int i = 0; i < CLIENTS; i++) {
+			UserDtls user = new UserDtls();
+			user.setName("Client " + i);
+			user.setEmail("client" + i + "@load.test");
+			user.setPassword("unused");
+			user.setRole(i % ADMIN_EVERY == ADMIN_EVERY - 1 ? "ROLE_ADMIN" : "ROLE_USER");
+			user.setIsEnable(true);
+			user.setAccountNonLocked(true);
+			user.setFailedAttempt(0);
+			user.setProfileImage("default.jpg");
+			users.add(user);
+		}
+		return userRepository.saveAll(users).stream().map(jwtTokenUtil::generateToken).toList();
+	}
+
+	private List<ClientResult> drive(HttpClient client, String base, List<String> tokens, Duration duration)
+			throws Exception {
+		long end = System.nanoTime() + duration.toNanos();
+		List<Future<ClientResult>> futures = new ArrayList<>();
+		ExecutorService executor = clientExecutor();
+		try {
+			for (int i = 0; i < CLIENTS; i++) {
+				boolean admin = i % ADMIN_EVERY == ADMIN_EVERY - 1;
+				String token = tokens.get(i);
+				futures.add(executor.submit(() -> admin ? runAdmin(client, base, token, end)
+						: runShopper(client, base, token, end)));
+			}
+			List<ClientResult> results = new ArrayList<>();
+			for (Future<ClientResult> future : futures) {
+				results.add(future.get());
+			}
+			return results;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private ClientResult runShopper(HttpClient client, String base, String token, long end) {
+		ClientResult result = new ClientResult();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		// a shopper keeps coming back to a handful of products, which bounds the size of its cart
+		int[] favourites = random.ints(5, 1, PRODUCTS + 1).toArray();
+		boolean cartFilled = false;
+		int totalWeight = 0;
+		for (Operation operation : Operation.values()) {
+			totalWeight += operation.weight;
+		}
+		while (System.nanoTime() < end) {
+			int pick = random.nextInt(totalWeight);
+			Operation operation = Operation.BROWSE;
+			for (Operation candidate : Operation.values()) {
+				if (pick < candidate.weight) {
+					operation = candidate;
+					break;
+				}
+				pick -= candidate.weight;
+			}
+			// checking out an empty cart is a client error, fill it first
+			if (operation == Operation.CHECKOUT && !cartFilled) {
+				operation = Operation.ADD_TO_CART;
+			}
+			HttpRequest request = switch (operation) {
+				case BROWSE -> get(base + "/products?pageNo=" + random.nextInt(20) + "&category="
+						+ (random.nextBoolean() ? "" : CATEGORIES[random.nextInt(CATEGORIES.length)]), null);
+				case PRODUCT -> get(base + "/product/" + random.nextInt(1, PRODUCTS + 1), null);
+				case SEARCH -> get(base + "/search?ch=" + CATEGORIES[random.nextInt(CATEGORIES.length)], null);
+				case ADD_TO_CART -> post(base + "/api/user/cart?productId=" + favourites[random.nextInt(favourites.length)],
+						token, HttpRequest.BodyPublishers.noBody());
+				case VIEW_CART -> get(base + "/api/user/cart", token);
+				case CHECKOUT -> post(base + "/api/user/orders", token, HttpRequest.BodyPublishers.ofString(ORDER_JSON));
+				case ADMIN_ORDERS -> throw new IllegalStateException();
+			};
+			boolean ok = send(client, request, operation, result);
+			cartFilled |= ok && operation == Operation.ADD_TO_CART;
+		}
+		return result;
+	}
+
+	private ClientResult runAdmin(HttpClient client, String base, String token, long end) {
+		ClientResult result = new ClientResult();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while (System.nanoTime() < end) {
+			send(client, get(base + "/api/admin/orders?page=" + random.nextInt(10) + "&size=20", token),
+					Operation.ADMIN_ORDERS, result);
+		}
+		return result;
+	}
+
+	private boolean send(HttpClient client, HttpRequest request, Operation operation, ClientResult result) {
+		long start = System.nanoTime();
+		boolean ok;
+		try {
+			int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+			ok = status >= 200 && status < 300;
+		} catch (Exception e) {
+			ok = false;
+		}
+		result.histogram(operation).recordNanos(System.nanoTime() - start);
+		if (!ok) {
+			result.errors.merge(operation, 1L, Long::sum);
+		}
+		return ok;
+	}
+
+	private HttpRequest get(String uri, String token) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(30));
+		if (token != null) {
+			builder.header("Authorization", "Bearer " + token);
+		}
+		return builder.GET().build();
+	}
+
+	private HttpRequest post(String uri, String token, HttpRequest.BodyPublisher body) {
+		return HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(30))
+				.header("Authorization", "Bearer " + token)
+				.header("Content-Type", "application/json")
+				.POST(body).build();
+	}
+
+	// virtual threads when the JVM has them, the test is compiled for Java 17
+	private ExecutorService clientExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool(CLIENTS);
+		}
+	}
+
+	private Map<String, Object> report(List<ClientResult> results, double elapsed, boolean virtual) {
+		Map<String, Object> operations = new LinkedHashMap<>();
+		LatencyHistogram all = new LatencyHistogram();
+		long allErrors = 0;
+
+		StringBuilder table = new StringBuilder(String.format("%n%-13s %9s %9s %7s %9s %9s %9s %9s", "operation",
+				"requests", "req/s", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+		for (Operation operation : Operation.values()) {
+			LatencyHistogram histogram = new LatencyHistogram();
+			long errors = 0;
+			for (ClientResult result : results) {
+				histogram.add(result.histogram(operation));
+				errors += result.errors.getOrDefault(operation, 0L);
+			}
+			if (histogram.getCount() == 0) {
+				continue;
+			}
+			all.add(histogram);
+			allErrors += errors;
+			operations.put(operation.name().toLowerCase(), summary(histogram, errors, elapsed));
+			print(table, operation.name().toLowerCase(), histogram, errors, elapsed);
+		}
+		print(table, "total", all, allErrors, elapsed);
+		logger.info("Mixed workload, {} clients for {} s:{}", CLIENTS, SECONDS, table);
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("commit", commit());
+		report.put("timestamp", LocalDateTime.now().toString());
+		report.put("java", Runtime.version().toString());
+		report.put("threads", virtual ? "virtual" : "platform");
+		report.put("clients", CLIENTS);
+		report.put("seconds", SECONDS);
+		report.put("products", PRODUCTS);
+		report.put("total", summary(all, allErrors, elapsed));
+		report.put("operations", operations);
+		return report;
+	}
+
+	private Map<String, Object> summary(LatencyHistogram histogram, long errors, double elapsed) {
+		Map<String, Object> summary = new LinkedHashMap<>();
+		summary.put("requests", histogram.getCount());
+		summary.put("errors", errors);
+		summary.put("throughput", round(histogram.getCount() / elapsed));
+		summary.put("meanMs", round(histogram.getMeanMillis()));
+		summary.put("p50Ms", histogram.getPercentileMillis(50));
+		summary.put("p90Ms", histogram.getPercentileMillis(90));
+		summary.put("p99Ms", histogram.getPercentileMillis(99));
+		summary.put("p999Ms", histogram.getPercentileMillis(99.9));
+		summary.put("maxMs", histogram.getMaxMillis());
+		return summary;
+	}
+
+	private void print(StringBuilder table, String name, LatencyHistogram histogram, long errors, double elapsed) {
+		table.append(String.format("%n%-13s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f", name, histogram.getCount(),
+				histogram.getCount() / elapsed, errors, histogram.getPercentileMillis(50),
+				histogram.getPercentileMillis(99), histogram.getPercentileMillis(99.9), histogram.getMaxMillis()));
+	}
+
+	private Path write(Map<String, Object> report) throws Exception {
+		Files.createDirectories(REPORT_DIR);
+		String name = "mixed-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + "-"
+				+ report.get("commit") + ".json";
+		Path file = REPORT_DIR.resolve(name);
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+		return file;
+	}
+
+	private String commit() {
+		String label = System.getProperty("load.label");
+		if (label != null) {
+			return label;
+		}
+		try {
+			Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+			String commit = new String(git.getInputStream().readAllBytes()).trim();
+			return git.waitFor() == 0 && !commit.isEmpty() ? commit : "unknown";
+		} catch (Exception e) {
+			return "unknown";
+		}
+	}
+
+	private static double round(double value) {
+		return Math.round(value * 100) / 100.0;
+	}
+
+	private static class ClientResult {
+
+		private final Map<Operation, LatencyHistogram> histograms = new LinkedHashMap<>();
+
+		private final Map<Operation, Long> errors = new LinkedHashMap<>();
+
+		LatencyHistogram histogram(Operation operation) {
+			return histograms.computeIfAbsent(operation, key -> new LatencyHistogram());
+		}
+	}
+
+}
@@ -0,0 +1,156 @@
+package com.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ecom.model.DiscountCampaign;
+import com.ecom.model.Product;
+import com.ecom.repository.ProductRepository;
+import com.ecom.util.CatalogVersion;
+import com.ecom.util.Money;
+
+/**
+ * Campaigns take over the products of their category in batches, round like
+ * Money.percentOff, leave products with a bigger discount alone, and give the
+ * products their own discount back when they stop. Cached products are not
+ * served stale, on this node or on the others, and a transition that was cut
+ * short is finished by the scheduler.
+ */
+@SpringBootTest(properties = "app.campaigns.batch-size=2")
+class CampaignServiceTest {
+
+	@Autowired
+	private CampaignService campaignService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private CatalogVersion catalogVersion;
+
+	@Test
+	void campaignAppliesToItsCategoryAndIsReverted() {
+		Product laptop = product("Lamps", 100.00, 0);
+		Product cheap = product("Lamps", 19.99, 0);
+		Product clearance = product("Lamps", 50.00, 30);
+		Product chair = product("Chairs", 10.00, 0);
+		// cached before the campaign starts
+		productService.getProductById(laptop.getId());
+
+		DiscountCampaign campaign = campaignService.saveCampaign(campaign("Lamps", 20));
+
+		assertThat(campaign.getStatus()).isEqualTo(DiscountCampaign.Status.ACTIVE);
+		assertThat(campaign.getProducts()).isEqualTo(2);
+		assertThat(productService.getProductById(laptop.getId()).getDiscountPrice()).isEqualTo(Money.of(80.00));
+		assertThat(productService.getProductById(laptop.getId()).getDiscount()).isEqualTo(20);
+		assertThat(productService.getProductById(cheap.getId()).getDiscountPrice())
+				.isEqualTo(Money.of(19.99).percentOff(20));
+		assertThat(productService.getProductById(clearance.getId()).getDiscountPrice()).isEqualTo(Money.of(35.00));
+		assertThat(productService.getProductById(chair.getId()).getDiscountPrice()).isEqualTo(Money.of(10.00));
+
+		assertThat(campaignService.cancelCampaign(campaign.getId()).getStatus())
+				.isEqualTo(DiscountCampaign.Status.CANCELLED);
+		assertThat(productService.getProductById(laptop.getId()).getDiscountPrice()).isEqualTo(Money.of(100.00));
+		assertThat(productService.getProductById(laptop.getId()).getDiscount()).isEqualTo(0);
+		assertThat(productService.getProductById(cheap.getId()).getDiscountPrice()).isEqualTo(Money.of(19.99));
+		assertThat(productService.getProductById(clearance.getId()).getDiscount()).isEqualTo(30);
+	}
+
+	@Test
+	void schedulerStartsAndEndsCampaigns() {
+		Product desk = product("Desks", 200.00, 10);
+
+		DiscountCampaign campaign = campaign("Desks", 25);
+		campaign.setStartsAt(LocalDateTime.now().plusHours(1));
+		campaign = campaignService.saveCampaign(campaign);
+		assertThat(campaign.getStatus()).isEqualTo(DiscountCampaign.Status.SCHEDULED);
+		assertThat(productService.getProductById(desk.getId()).getDiscount()).isEqualTo(10);
+
+		jdbcTemplate.update("update discount_campaign set starts_at = ? where id = ?", LocalDateTime.now().minusMinutes(1),
+				campaign.getId());
+		campaignService.runDueCampaigns();
+		assertThat(productService.getProductById(desk.getId()).getDiscountPrice()).isEqualTo(Money.of(150.00));
+
+		jdbcTemplate.update("update discount_campaign set ends_at = ? where id = ?", LocalDateTime.now().minusMinutes(1),
+				campaign.getId());
+		campaignService.runDueCampaigns();
+		assertThat(campaignService.getCampaignById(campaign.getId()).getStatus()).isEqualTo(DiscountCampaign.Status.ENDED);
+		assertThat(productService.getProductById(desk.getId()).getDiscountPrice()).isEqualTo(Money.of(180.00));
+		assertThat(productService.getProductById(desk.getId()).getDiscount()).isEqualTo(10);
+	}
+
+	@Test
+	void interruptedTransitionsAreResumed() {
+		Product vase = product("Vases", 40.00, 0);
+
+		// a start that was cut short before any range was applied
+		DiscountCampaign campaign = campaign("Vases", 50);
+		campaign.setStartsAt(LocalDateTime.now().plusHours(1));
+		campaign = campaignService.saveCampaign(campaign);
+		jdbcTemplate.update("update discount_campaign set status = 'STARTING' where id = ?", campaign.getId());
+		campaignService.runDueCampaigns();
+		assertThat(campaignService.getCampaignById(campaign.getId()).getStatus()).isEqualTo(DiscountCampaign.Status.ACTIVE);
+		assertThat(campaignService.getCampaignById(campaign.getId()).getProducts()).isEqualTo(1);
+		assertThat(productService.getProductById(vase.getId()).getDiscountPrice()).isEqualTo(Money.of(20.00));
+
+		// a stop that was claimed but never reverted its products
+		jdbcTemplate.update("update discount_campaign set status = 'CANCELLED' where id = ?", campaign.getId());
+		campaignService.runDueCampaigns();
+		assertThat(productService.getProductById(vase.getId()).getDiscountPrice()).isEqualTo(Money.of(40.00));
+		assertThat(jdbcTemplate.queryForObject("select count(*) from product where campaign_id = ?", Integer.class,
+				campaign.getId())).isZero();
+	}
+
+	@Test
+	void campaignStartedByAnotherNodeIsPickedUp() {
+		Product sofa = product("Sofas", 100.00, 0);
+		productService.getProductById(sofa.getId());
+		long version = catalogVersion.current().version();
+
+		// what start() does on the node that won the claim
+		jdbcTemplate.update("update product set discount = 40, discount_price = 60.00 where id = ?", sofa.getId());
+		jdbcTemplate.update("update catalog_version set version = version + 1 where id = 1");
+		assertThat(productService.getProductById(sofa.getId()).getDiscount()).isEqualTo(0);
+
+		catalogVersion.refresh();
+		assertThat(catalogVersion.current().version()).isEqualTo(version + 1);
+		assertThat(productService.getProductById(sofa.getId()).getDiscountPrice()).isEqualTo(Money.of(60.00));
+	}
+
+	private DiscountCampaign campaign(String category, int percentOff) {
+		DiscountCampaign campaign = new DiscountCampaign();
+		campaign.setName(percentOff + "% off " + category);
+		campaign.setCategory(category);
+		campaign.setPercentOff(percentOff);
+		campaign.setStartsAt(LocalDateTime.now().minusMinutes(1));
+		campaign.setEndsAt(LocalDateTime.now().plusDays(1));
+		return campaign;
+	}
+
+	private Product product(String category, double price, int discount) {
+		Product product = new Product();
+		product.setTitle(category);
+		product.setDescription(category);
+		product.setCategory(category);
+		product.setPrice(Money.of(price));
+		product.setDiscount(discount);
+		product.setDiscountPrice(Money.of(price).percentOff(discount));
+		product.setStock(10);
+		product.setImage("default.jpg");
+		product.setIsActive(true);
+		return productRepository.save(product);
+	}
+
+}
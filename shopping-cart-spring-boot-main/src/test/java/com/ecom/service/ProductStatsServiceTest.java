@@ -0,0 +1,111 @@
+package com.ecom.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ecom.SqlCountExtension;
+import com.ecom.model.ProductStats;
+
+/**
+ * Counts from many threads reach product_stats in one batched upsert per flush,
+ * and flushes add to what is already stored. A failed flush writes nothing, so
+ * retrying it counts every hit once.
+ */
+@SpringBootTest
+class ProductStatsServiceTest {
+
+	@RegisterExtension
+	SqlCountExtension sql = new SqlCountExtension();
+
+	@Autowired
+	private ProductStatsService productStatsService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void clear() {
+		productStatsService.flush();
+		jdbcTemplate.update("delete from product_stats");
+	}
+
+	@Test
+	void concurrentCountsAreFlushedInOneBatch() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 10_000; i++) {
+						productStatsService.recordView(1 + i % 50);
+					}
+					productStatsService.recordCartAdd(7);
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		sql.reset();
+		assertThat(productStatsService.flush()).isEqualTo(50);
+		sql.assertStatements(1);
+
+		assertThat(jdbcTemplate.queryForObject("select sum(views) from product_stats", Long.class)).isEqualTo(40_000);
+		ProductStats stats = productStatsService.getStats(7);
+		assertThat(stats.getViews()).isEqualTo(800);
+		assertThat(stats.getCartAdds()).isEqualTo(4);
+	}
+
+	@Test
+	void flushesAddToStoredCountsAndReadsIncludeUnflushedOnes() {
+		productStatsService.recordView(3);
+		productStatsService.flush();
+		productStatsService.recordView(3);
+		productStatsService.recordView(3);
+		productStatsService.recordCartAdd(3);
+
+		assertThat(productStatsService.getStats(3).getViews()).isEqualTo(3);
+		assertThat(productStatsService.flush()).isEqualTo(1);
+		assertThat(productStatsService.flush()).isZero();
+
+		ProductStats stored = jdbcTemplate.queryForObject("select * from product_stats where product_id = 3",
+				(rs, row) -> new ProductStats(rs.getInt("product_id"), rs.getLong("views"), rs.getLong("cart_adds")));
+		assertThat(stored.getViews()).isEqualTo(3);
+		assertThat(stored.getCartAdds()).isEqualTo(1);
+		assertThat(productStatsService.getStatsPagination(0, 10).getContent()).extracting(ProductStats::getProductId)
+				.containsExactly(3);
+	}
+
+	@Test
+	void failedFlushIsRolledBackAndRetried() {
+		jdbcTemplate.execute("alter table product_stats add constraint ck_product_stats_test check (product_id <> 9)");
+		try {
+			productStatsService.recordView(4);
+			productStatsService.recordView(9);
+			assertThat(productStatsService.flush()).isZero();
+			assertThat(jdbcTemplate.queryForObject("select count(*) from product_stats", Integer.class)).isZero();
+		} finally {
+			jdbcTemplate.execute("alter table product_stats drop constraint ck_product_stats_test");
+		}
+
+		assertThat(productStatsService.flush()).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject("select views from product_stats where product_id = 4", Long.class))
+				.isEqualTo(1);
+	}
+
+}
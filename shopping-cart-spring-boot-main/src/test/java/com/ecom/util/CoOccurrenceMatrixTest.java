@@ -0,0 +1,80 @@
+package com.ecom.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CoOccurrenceMatrixTest {
+
+	@Test
+	void countsEachPairOncePerBasketInBothDirections() {
+		CoOccurrenceMatrix matrix = new CoOccurrenceMatrix(5);
+		matrix.addBasket(new int[] { 3, 1, 3, 2, 0 });
+		matrix.addBasket(new int[] { 1, 2 });
+
+		assertThat(matrix.count(1, 2)).isEqualTo(2);
+		assertThat(matrix.count(2, 1)).isEqualTo(2);
+		assertThat(matrix.count(1, 3)).isEqualTo(1);
+		assertThat(matrix.count(3, 3)).isZero();
+		assertThat(matrix.getPairs()).isEqualTo(6);
+		assertThat(matrix.related(1)).containsExactly(2, 3);
+		assertThat(matrix.related(4)).isEmpty();
+	}
+
+	@Test
+	void addingToABasketOnlyCountsTheNewPairs() {
+		CoOccurrenceMatrix split = new CoOccurrenceMatrix(5);
+		split.addBasket(new int[] { 1, 2 });
+		split.addToBasket(new int[] { 1, 2 }, new int[] { 2, 3 });
+
+		CoOccurrenceMatrix whole = new CoOccurrenceMatrix(5);
+		whole.addBasket(new int[] { 1, 2, 3 });
+
+		for (int a = 1; a <= 3; a++) {
+			for (int b = 1; b <= 3; b++) {
+				assertThat(split.count(a, b)).isEqualTo(whole.count(a, b));
+			}
+		}
+	}
+
+	@Test
+	void topNeighboursMatchAFullSortOfTheCounts() {
+		int products = 300;
+		CoOccurrenceMatrix matrix = new CoOccurrenceMatrix(4);
+		Random random = new Random(7);
+		for (int i = 0; i < 20_000; i++) {
+			int[] basket = new int[2 + random.nextInt(4)];
+			for (int j = 0; j < basket.length; j++) {
+				// skewed, so neighbours keep overtaking each other
+				basket[j] = 1 + (int) (products * Math.pow(random.nextDouble(), 3));
+			}
+			matrix.addBasket(basket);
+		}
+
+		for (int product = 1; product <= products; product++) {
+			int[] related = matrix.related(product);
+			int previous = Integer.MAX_VALUE;
+			for (int id : related) {
+				assertThat(matrix.count(product, id)).isPositive().isLessThanOrEqualTo(previous);
+				previous = matrix.count(product, id);
+			}
+			if (related.length == 4) {
+				for (int other = 1; other <= products; other++) {
+					if (Arrays.binarySearch(sorted(related), other) < 0) {
+						assertThat(matrix.count(product, other)).isLessThanOrEqualTo(previous);
+					}
+				}
+			}
+		}
+	}
+
+	private static int[] sorted(int[] ids) {
+		int[] copy = ids.clone();
+		Arrays.sort(copy);
+		return copy;
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.ecom.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CounterTableTest {
+
+	@Test
+	void drainedRowsAreReleased() {
+		CounterTable table = new CounterTable(2);
+		for (int id = 1; id <= 1000; id++) {
+			table.increment(id, 0);
+		}
+		assertThat(table.drain()).hasSize(1000);
+		assertThat(table.size()).isEqualTo(1000);
+
+		table.increment(1, 1);
+		assertThat(table.drain()).hasSize(1);
+		assertThat(table.size()).isEqualTo(1);
+
+		assertThat(table.drain()).isEmpty();
+		assertThat(table.size()).isZero();
+	}
+
+	@Test
+	void countsBetweenDrainsAreNotLost() {
+		CounterTable table = new CounterTable(1);
+		table.increment(7, 0);
+		table.drain();
+		table.add(7, 0, 3);
+		table.increment(7, 0);
+		assertThat(table.pending(7, 0)).isEqualTo(4);
+
+		List<CounterTable.Delta> deltas = table.drain();
+		assertThat(deltas).hasSize(1);
+		assertThat(deltas.get(0).values()[0]).isEqualTo(4);
+		assertThat(table.pending(7, 0)).isZero();
+	}
+
+}
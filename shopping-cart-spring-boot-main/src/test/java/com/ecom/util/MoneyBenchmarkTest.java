@@ -0,0 +1,100 @@
+package com.ecom.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cart totals the way CartServiceImpl computed them with boxed Doubles, with
+ * Money objects, and with Money's primitive helpers: time and heap allocated per
+ * cart, after warm-up. A stand-in for a JMH benchmark, which this build does not
+ * have; run with {@code mvn test -Pload -Dtest=MoneyBenchmarkTest}.
+ */
+@Tag("load")
+class MoneyBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(MoneyBenchmarkTest.class);
+
+	private static final int LINES = 50;
+
+	private static final int WARMUP = 200_000;
+
+	private static final int ITERATIONS = 1_000_000;
+
+	private final Double[] doublePrices = new Double[LINES];
+
+	private final Money[] moneyPrices = new Money[LINES];
+
+	private final int[] quantities = new int[LINES];
+
+	// results are kept here so the JIT cannot drop the work
+	private volatile long sink;
+
+	@Test
+	void compareCartTotals() {
+		Random random = new Random(1);
+		for (int i = 0; i < LINES; i++) {
+			moneyPrices[i] = Money.ofCents(100 + random.nextInt(100_000));
+			doublePrices[i] = moneyPrices[i].cents() / 100.0;
+			quantities[i] = 1 + random.nextInt(3);
+		}
+
+		StringBuilder table = new StringBuilder(String.format("%n%-14s %12s %14s", "variant", "ns/cart", "bytes/cart"));
+		measure(table, "boxed Double", this::boxedDouble);
+		measure(table, "Money", this::money);
+		measure(table, "Money cents", this::cents);
+		logger.info("Cart totals, {} lines:{}", LINES, table);
+
+		assertThat(money()).isEqualTo(cents());
+	}
+
+	private long boxedDouble() {
+		Double totalOrderPrice = 0.0;
+		for (int i = 0; i < LINES; i++) {
+			Double totalPrice = doublePrices[i] * quantities[i];
+			totalOrderPrice = totalOrderPrice + totalPrice;
+		}
+		return Math.round(totalOrderPrice * 100);
+	}
+
+	private long money() {
+		Money totalOrderPrice = Money.ZERO;
+		for (int i = 0; i < LINES; i++) {
+			totalOrderPrice = totalOrderPrice.plus(moneyPrices[i].times(quantities[i]));
+		}
+		return totalOrderPrice.cents();
+	}
+
+	private long cents() {
+		long totalOrderPrice = 0;
+		for (int i = 0; i < LINES; i++) {
+			totalOrderPrice += Money.times(moneyPrices[i].cents(), quantities[i]);
+		}
+		return totalOrderPrice;
+	}
+
+	private void measure(StringBuilder table, String name, LongSupplier variant) {
+		for (int i = 0; i < WARMUP; i++) {
+			sink = variant.getAsLong();
+		}
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		long bytes = threads.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			sink = variant.getAsLong();
+		}
+		long elapsed = System.nanoTime() - start;
+		bytes = threads.getThreadAllocatedBytes(thread) - bytes;
+		table.append(String.format("%n%-14s %12.1f %14.1f", name, elapsed / (double) ITERATIONS,
+				bytes / (double) ITERATIONS));
+	}
+
+}
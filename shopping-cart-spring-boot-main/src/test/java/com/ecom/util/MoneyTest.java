@@ -0,0 +1,53 @@
+package com.ecom.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import com.ecom.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class MoneyTest {
+
+	@Test
+	void sumsAreExact() {
+		Money total = Money.ZERO;
+		double doubleTotal = 0;
+		for (int i = 0; i < 10; i++) {
+			total = total.plus(Money.of(0.1));
+			doubleTotal += 0.1;
+		}
+		assertThat(total).isEqualTo(Money.of(1));
+		assertThat(doubleTotal).isNotEqualTo(1.0);
+	}
+
+	@Test
+	void percentagesRoundHalfUpToTheCent() {
+		assertThat(Money.of(19.99).percentOff(15)).isEqualTo(Money.valueOf("16.99"));
+		assertThat(Money.ofCents(5).percentOff(50)).isEqualTo(Money.ofCents(3));
+		assertThat(Money.ofCents(-5).percentOff(50)).isEqualTo(Money.ofCents(-3));
+		assertThat(Money.of(new BigDecimal("2.345"))).isEqualTo(Money.ofCents(235));
+	}
+
+	@Test
+	void printsTwoDecimals() {
+		assertThat(Money.ofCents(123456)).hasToString("1234.56");
+		assertThat(Money.ofCents(5)).hasToString("0.05");
+		assertThat(Money.ofCents(-150)).hasToString("-1.50");
+		assertThat(Money.valueOf(" ")).isNull();
+	}
+
+	@Test
+	void jsonIsAPlainNumber() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		Product product = new Product();
+		product.setPrice(Money.of(12.5));
+
+		assertThat(mapper.writeValueAsString(product)).contains("\"price\":12.50");
+		assertThat(mapper.readValue("{\"price\":12.5}", Product.class).getPrice()).isEqualTo(Money.ofCents(1250));
+		assertThat(mapper.readValue("{\"price\":\"7.10\"}", Product.class).getPrice()).isEqualTo(Money.ofCents(710));
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.ecom.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class PopularitySketchTest {
+
+	private static final long HOUR = 3_600_000;
+
+	@Test
+	void scoresHalveEveryHalfLife() {
+		PopularitySketch sketch = new PopularitySketch(1024, 4, HOUR, 16, 0);
+		sketch.record(7, 8, 0);
+		sketch.record(7, 4, HOUR);
+
+		assertThat(sketch.estimate(7, HOUR)).isCloseTo(8, within(1e-9));
+		assertThat(sketch.estimate(7, 3 * HOUR)).isCloseTo(2, within(1e-9));
+		assertThat(sketch.estimate(8, 3 * HOUR)).isZero();
+	}
+
+	@Test
+	void recentEventsOutrankOlderOnes() {
+		PopularitySketch sketch = new PopularitySketch(1024, 4, HOUR, 16, 0);
+		for (int i = 0; i < 10; i++) {
+			sketch.record(1, 1, 0);
+		}
+		for (int i = 0; i < 4; i++) {
+			sketch.record(2, 1, 4 * HOUR);
+		}
+
+		assertThat(sketch.top(2, id -> true)).containsExactly(2, 1);
+		assertThat(sketch.top(2, id -> id != 2)).containsExactly(1);
+	}
+
+	@Test
+	void heavyHittersOfASkewedStreamAreFound() {
+		int ids = 20_000;
+		PopularitySketch sketch = new PopularitySketch(2048, 4, 1000 * HOUR, 64, 0);
+		long[] exact = new long[ids];
+		Random random = new Random(11);
+		for (int i = 0; i < 200_000; i++) {
+			// Zipf-like: id k is drawn with probability close to 1 / k
+			int id = (int) Math.min(ids - 1, Math.floor(Math.exp(random.nextDouble() * Math.log(ids))) - 1);
+			exact[id]++;
+			sketch.record(id, 1, i);
+		}
+
+		List<Integer> top = sketch.top(10, id -> true);
+		assertThat(top).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+		for (int id = 0; id < 100; id++) {
+			assertThat(sketch.estimate(id, 0)).isGreaterThanOrEqualTo(exact[id] - 1e-6);
+		}
+	}
+
+	@Test
+	void concurrentRecordsAreNotLost() throws Exception {
+		PopularitySketch sketch = new PopularitySketch(1024, 4, HOUR, 16, 0);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 25_000; i++) {
+						sketch.record(42, 1, 0);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertThat(sketch.estimate(42, 0)).isEqualTo(100_000);
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.ecom.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.ecom.config.SchemaMigrator;
+
+/**
+ * Generates a small data set into a migrated H2 database and checks that the
+ * rows reference each other and have the intended shape.
+ */
+class SyntheticDataGeneratorTest {
+
+	private static final int PRODUCTS = 2000;
+
+	private static final int ORDERS = 20000;
+
+	private static JdbcTemplate jdbcTemplate;
+
+	private static SyntheticDataGenerator.Result result;
+
+	@BeforeAll
+	static void generate() throws Exception {
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:generator;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa",
+				"");
+		new SchemaMigrator(dataSource, "classpath:db/migration", true).migrate();
+		result = new SyntheticDataGenerator(dataSource).generate(new SyntheticDataGenerator.Settings(10, PRODUCTS, 500,
+				100, ORDERS, 3, 1.1, 1.0, 0.8, "hash", 7, 500));
+		jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+
+	@Test
+	void everyRowIsWritten() {
+		assertThat(count("category")).isEqualTo(10);
+		assertThat(count("product")).isEqualTo(PRODUCTS);
+		assertThat(count("user_dtls")).isEqualTo(500);
+		assertThat(count("cart")).isEqualTo(result.carts()).isBetween(100, 400);
+		// CartRepository.findByProductIdAndUserId expects at most one row per pair
+		assertThat(jdbcTemplate.queryForObject("select count(*) from (select user_id, product_id from cart "
+				+ "group by user_id, product_id having count(*) > 1) duplicates", Integer.class)).isZero();
+		assertThat(count("product_order")).isEqualTo(ORDERS);
+		assertThat(count("order_address")).isEqualTo(ORDERS);
+		assertThat(jdbcTemplate.queryForObject("select count(distinct order_address_id) from product_order",
+				Integer.class)).isEqualTo(ORDERS);
+	}
+
+	@Test
+	void popularityIsSkewed() {
+		List<Integer> perProduct = jdbcTemplate.queryForList(
+				"select count(*) from product_order group by product_id order by count(*) desc", Integer.class);
+		int top = perProduct.subList(0, PRODUCTS / 100).stream().mapToInt(Integer::intValue).sum();
+		// with exponent 1 the top 1% of 2000 products take about 36% of the orders
+		assertThat(top).isGreaterThan(ORDERS / 4);
+
+		List<Integer> perCategory = jdbcTemplate.queryForList(
+				"select count(*) from product group by category order by count(*) desc", Integer.class);
+		assertThat(perCategory.get(0)).isGreaterThan(3 * perCategory.get(perCategory.size() - 1));
+	}
+
+	@Test
+	void ordersSpanTheYearsAndGrowTowardsToday() {
+		LocalDate today = LocalDate.now();
+		int lastYear = countOrdersBetween(today.minusYears(1), today);
+		int firstYear = countOrdersBetween(today.minusYears(3), today.minusYears(2));
+		assertThat(firstYear).isPositive();
+		assertThat(lastYear).isGreaterThan(2 * firstYear);
+	}
+
+	private int countOrdersBetween(LocalDate from, LocalDate to) {
+		return jdbcTemplate.queryForObject("select count(*) from product_order where order_date > ? and order_date <= ?",
+				Integer.class, from, to);
+	}
+
+	private int count(String table) {
+		return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+	}
+
+}